@@ -1,15 +1,28 @@
 package com.payroll.payroll_system.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
 public class AppConfig {
-    
+
+    // Each step doubles the cost of a login; hashes below the configured strength are upgraded on login
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // New hashes are stored with an {id} prefix so the algorithm can change later. Hashes written before
+    // the prefix existed are plain bcrypt and are re-encoded the next time their user logs in.
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.payroll.payroll_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Value("${app.async.pool-size:2}")
+    private int asyncPoolSize;
+
+    @Value("${app.batch.pool-size:4}")
+    private int partitionPoolSize;
+
+    @Value("${app.batch.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.security.login.pool-size:4}")
+    private int loginPoolSize;
+
+    @Value("${app.security.login.queue-capacity:200}")
+    private int loginQueueCapacity;
+
+    // Runs @Async work such as outgoing mail; batch partitions have their own pool below
+    @Override
+    public Executor getAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncPoolSize);
+        executor.setMaxPoolSize(asyncPoolSize);
+        executor.setThreadNamePrefix("async-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs the partitions claimed from the batch queue by BatchJobWorker
+    @Bean
+    public TaskExecutor batchPartitionExecutor() {
+        if (virtualThreads) {
+            // Requires a JDK with virtual thread support (21+); the concurrency limit keeps it bounded
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-partition-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(partitionPoolSize);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitionPoolSize);
+        executor.setMaxPoolSize(partitionPoolSize);
+        executor.setThreadNamePrefix("batch-partition-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs password verification for LoginService; size it to the cores bcrypt may use. Logins beyond
+    // the queue capacity are rejected rather than piling up.
+    @Bean
+    public TaskExecutor loginExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loginPoolSize);
+        executor.setMaxPoolSize(loginPoolSize);
+        executor.setQueueCapacity(loginQueueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,88 @@
+package com.payroll.payroll_system.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+
+// Read-through caches for tenant reference data, plus the token revocation list. Every reference data
+// key starts with the organization id, so one tenant never reads another tenant's entries. Writes and
+// evictions are deferred until the surrounding transaction commits, otherwise a concurrent reader could
+// cache the row the transaction is replacing.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ORGANIZATIONS = "organizations";
+    public static final String EMPLOYEES_BY_ORGANIZATION = "employeesByOrganization";
+    public static final String EMPLOYEE = "employee";
+    public static final String DEPARTMENTS_BY_ORGANIZATION = "departmentsByOrganization";
+    public static final String DEPARTMENT = "department";
+    // Employee ids known to exist, checked on every check-in; holds no tenant data, so it is keyed by id only
+    public static final String EXISTING_EMPLOYEES = "existingEmployees";
+    // Token revocations, shared by every instance when Redis is configured
+    public static final String REVOKED_TOKENS = "revokedTokens";
+    public static final String REVOKED_USERS = "revokedUsers";
+
+    @Value("${app.cache.ttl:10m}")
+    private Duration ttl;
+
+    // Organizations are never renamed or removed through the API, so they can live longer
+    @Value("${app.cache.organization-ttl:1h}")
+    private Duration organizationTtl;
+
+    // Must cover the token lifetime, after that a revoked token is rejected as expired anyway
+    @Value("${app.security.jwt.revocation-ttl:5h}")
+    private Duration revocationTtl;
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.host")
+    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .disableCachingNullValues()
+                .prefixCacheNameWith("payroll::");
+
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withCacheConfiguration(ORGANIZATIONS, defaults.entryTtl(organizationTtl))
+                .withCacheConfiguration(REVOKED_TOKENS, defaults.entryTtl(revocationTtl))
+                .withCacheConfiguration(REVOKED_USERS, defaults.entryTtl(revocationTtl))
+                .transactionAware()
+                .build();
+    }
+
+    // Without Redis (local runs, tests) the same caches live in process with the same TTLs. Evictions
+    // only reach this instance, so with several instances an entry changed elsewhere stays stale until
+    // it expires, and a token revoked on one instance keeps working on the others until it expires:
+    // deployments with more than one instance must configure Redis.
+    @Bean
+    @ConditionalOnMissingBean(CacheManager.class)
+    public CacheManager inMemoryCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(ORGANIZATIONS, expiringAfter(organizationTtl));
+        for (String name : new String[]{EMPLOYEES_BY_ORGANIZATION, EMPLOYEE, DEPARTMENTS_BY_ORGANIZATION, DEPARTMENT,
+                EXISTING_EMPLOYEES}) {
+            cacheManager.registerCustomCache(name, expiringAfter(ttl));
+        }
+        cacheManager.registerCustomCache(REVOKED_TOKENS, expiringAfter(revocationTtl));
+        cacheManager.registerCustomCache(REVOKED_USERS, expiringAfter(revocationTtl));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> expiringAfter(Duration timeToLive) {
+        return Caffeine.newBuilder().expireAfterWrite(timeToLive).build();
+    }
+}
@@ -1,48 +1,182 @@
 package com.payroll.payroll_system.config;
 
+import com.payroll.payroll_system.entity.Organization;
+import com.payroll.payroll_system.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// Tokens are signed with the active key and carry its id in the "kid" header, so every instance
+// configured with the same keys accepts tokens issued by any other instance. To rotate, add the new key,
+// make it active and set rotated-at: the previous keys keep verifying until the tokens they signed have
+// expired, after which they can be removed from the configuration.
 @Component
 public class JwtTokenUtil {
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private final int JWT_TOKEN_VALIDITY = 5 * 60 * 60; // 5 hours
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtil.class);
+
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ORGANIZATION_ID_CLAIM = "org";
+    private static final String ROLES_CLAIM = "roles";
+
+    // Comma separated "kid:base64-secret" pairs, each secret at least 256 bits
+    @Value("${app.security.jwt.signing-keys:}")
+    private String signingKeys;
+
+    @Value("${app.security.jwt.active-key-id:}")
+    private String activeKeyId;
+
+    // When the active key last changed; unset keeps the previous keys valid for as long as they are configured
+    @Value("${app.security.jwt.rotated-at:}")
+    private String rotatedAt;
+
+    @Value("${app.security.jwt.validity:5h}")
+    private Duration tokenValidity;
+
+    private final Map<String, Key> keys = new HashMap<>();
+    private Key activeKey;
+    private Date previousKeysValidUntil;
+    // Thread-safe and immutable, so one instance serves every request
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        for (String entry : signingKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalStateException("app.security.jwt.signing-keys entries must be kid:base64-secret");
+            }
+            keys.put(parts[0], Keys.hmacShaKeyFor(Decoders.BASE64.decode(parts[1])));
+        }
+
+        if (keys.isEmpty()) {
+            logger.warn("No app.security.jwt.signing-keys configured, using a random key: tokens will not survive "
+                    + "a restart or be accepted by other instances");
+            activeKeyId = "local";
+            keys.put(activeKeyId, Keys.secretKeyFor(SignatureAlgorithm.HS256));
+        } else if (activeKeyId.isBlank() || !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("app.security.jwt.active-key-id must name one of the signing keys");
+        }
+        activeKey = keys.get(activeKeyId);
+
+        if (!rotatedAt.isBlank()) {
+            previousKeysValidUntil = Date.from(Instant.parse(rotatedAt).plus(tokenValidity));
+        }
+
+        parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return resolveKey(header.getKeyId());
+            }
+        }).build();
+    }
+
+    private Key resolveKey(String keyId) {
+        if (keyId == null || keyId.equals(activeKeyId)) {
+            return activeKey;
+        }
+        Key key = keys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key " + keyId);
+        }
+        if (previousKeysValidUntil != null && previousKeysValidUntil.before(new Date())) {
+            throw new UnsupportedJwtException("Signing key " + keyId + " has been retired");
+        }
+        return key;
+    }
+
+    // Verifies the signature and expiry once; callers read everything else from the returned claims.
+    // Throws JwtException for tokens that are malformed, tampered with or expired.
+    public Claims parseToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
 
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    // Tokens issued before the claim existed count as version 0
+    public int getTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version != null ? version : 0;
     }
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    public String getTokenIdFromToken(String token) {
+        return getClaimFromToken(token, Claims::getId);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    // Builds a detached principal from the signed claims alone, or returns null for tokens issued
+    // without them. Only the organization id is known, not the rest of the organization.
+    public User getPrincipalFromClaims(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return null;
+        }
+
+        User user = new User();
+        user.setId(UUID.fromString(userId));
+        user.setUsername(claims.getSubject());
+        user.setTokenVersion(getTokenVersion(claims));
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles != null) {
+            user.setRoles(roles.stream().map(String::valueOf).collect(Collectors.toSet()));
+        }
+        String organizationId = claims.get(ORGANIZATION_ID_CLAIM, String.class);
+        if (organizationId != null) {
+            Organization organization = new Organization();
+            organization.setId(UUID.fromString(organizationId));
+            user.setOrganization(organization);
+        }
+        return user;
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public Date getExpirationDateFromToken(String token) {
+        return getClaimFromToken(token, Claims::getExpiration);
+    }
+
+    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
+        return claimsResolver.apply(parseToken(token));
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+            // Enough for the stateless mode to authorize a request without loading the user
+            claims.put(USER_ID_CLAIM, user.getId().toString());
+            claims.put(ROLES_CLAIM, new ArrayList<>(user.getRoles()));
+            if (user.getOrganization() != null) {
+                claims.put(ORGANIZATION_ID_CLAIM, user.getOrganization().getId().toString());
+            }
+        }
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
@@ -50,15 +184,21 @@ public class JwtTokenUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY * 1000))
-                .signWith(key)
+                .setExpiration(new Date(System.currentTimeMillis() + tokenValidity.toMillis()))
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .signWith(activeKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails);
+    }
+
+    // Expiry was already enforced when the claims were parsed
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername());
     }
 }
 
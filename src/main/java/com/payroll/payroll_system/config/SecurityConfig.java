@@ -59,6 +59,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-hashes the password on a successful login when its stored hash is outdated
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
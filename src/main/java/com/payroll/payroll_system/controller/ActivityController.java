@@ -3,14 +3,13 @@ package com.payroll.payroll_system.controller;
 import com.payroll.payroll_system.dto.ActivityCreateDTO;
 import com.payroll.payroll_system.dto.ActivityDTO;
 import com.payroll.payroll_system.dto.ApiResponse;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.service.ActivityService;
-import com.payroll.payroll_system.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,12 +20,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ActivityController {
     private final ActivityService activityService;
-    private final UserService userService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<ActivityDTO>>> getActivitiesByOrganization(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.ok(ApiResponse.success(List.of(), "No organization assigned"));
         }
@@ -34,11 +31,31 @@ public class ActivityController {
         return ResponseEntity.ok(ApiResponse.success(activities, "Activities retrieved successfully"));
     }
 
+    // Keyset-paged alternative to the unbounded list; follow nextCursor until it is absent
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPage<ActivityDTO>>> getActivityPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+        
+        try {
+            CursorPage<ActivityDTO> page = activityService.getActivityPageByOrganization(
+                    currentUser.getOrganization().getId(), cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page, "Activities retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<ApiResponse<List<ActivityDTO>>> getActivitiesByEmployeeId(
             @PathVariable UUID employeeId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -54,8 +71,7 @@ public class ActivityController {
     public ResponseEntity<ApiResponse<ActivityDTO>> startActivity(
             @PathVariable UUID employeeId,
             @RequestBody ActivityCreateDTO activityDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -72,8 +88,7 @@ public class ActivityController {
     @PutMapping("/end/{activityId}")
     public ResponseEntity<ApiResponse<ActivityDTO>> endActivity(
             @PathVariable UUID activityId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
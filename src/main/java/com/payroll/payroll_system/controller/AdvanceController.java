@@ -4,15 +4,14 @@ import com.payroll.payroll_system.dto.AdvanceApprovalDTO;
 import com.payroll.payroll_system.dto.AdvanceDTO;
 import com.payroll.payroll_system.dto.AdvanceRequestDTO;
 import com.payroll.payroll_system.dto.ApiResponse;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.service.AdvanceService;
-import com.payroll.payroll_system.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,13 +22,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AdvanceController {
     private final AdvanceService advanceService;
-    private final UserService userService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<AdvanceDTO>>> getAdvancesByOrganization(
             @RequestParam(required = false) String status,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.ok(ApiResponse.success(List.of(), "No organization assigned"));
         }
@@ -46,12 +43,33 @@ public class AdvanceController {
         }
     }
 
+    // Keyset-paged alternative to the unbounded list; follow nextCursor until it is absent
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPage<AdvanceDTO>>> getAdvancePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String status,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+        
+        try {
+            CursorPage<AdvanceDTO> page = advanceService.getAdvancePageByOrganization(
+                    currentUser.getOrganization().getId(), status, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page, "Advances retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<ApiResponse<List<AdvanceDTO>>> getAdvancesByEmployee(
             @PathVariable UUID employeeId,
             @RequestParam(required = false) String status,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -75,8 +93,7 @@ public class AdvanceController {
     @GetMapping("/{advanceId}")
     public ResponseEntity<ApiResponse<AdvanceDTO>> getAdvanceById(
             @PathVariable UUID advanceId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -91,8 +108,7 @@ public class AdvanceController {
     @PostMapping("/request")
     public ResponseEntity<ApiResponse<AdvanceDTO>> requestAdvance(
             @RequestBody AdvanceRequestDTO requestDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -109,8 +125,7 @@ public class AdvanceController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<AdvanceDTO>> approveAdvance(
             @PathVariable UUID advanceId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -128,8 +143,7 @@ public class AdvanceController {
     public ResponseEntity<ApiResponse<AdvanceDTO>> rejectAdvance(
             @PathVariable UUID advanceId,
             @RequestBody AdvanceApprovalDTO approvalDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -147,8 +161,7 @@ public class AdvanceController {
     public ResponseEntity<ApiResponse<AdvanceDTO>> recordRepayment(
             @PathVariable UUID advanceId,
             @RequestParam double amount,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -1,14 +1,30 @@
 package com.payroll.payroll_system.controller;
+import com.payroll.payroll_system.dto.ApiResponse;
 import com.payroll.payroll_system.dto.AttendanceDTO;
+import com.payroll.payroll_system.dto.AttendanceImportResultDTO;
+import com.payroll.payroll_system.dto.CursorPage;
+import com.payroll.payroll_system.entity.User;
+import com.payroll.payroll_system.service.AttendanceImportService;
 import com.payroll.payroll_system.service.AttendanceService;
+import com.payroll.payroll_system.service.CheckInIngestionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -16,22 +32,124 @@ import java.util.UUID;
     @Autowired
     private  AttendanceService attendanceService;
 
+    @Autowired
+    private CheckInIngestionService checkInIngestionService;
+
+    @Autowired
+    private AttendanceImportService attendanceImportService;
+
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<List<AttendanceDTO>> getAttendanceByEmployeeId(@PathVariable UUID employeeId) {
         return ResponseEntity.ok(attendanceService.getAttendanceByEmployeeId(employeeId));
     }
 
+    // Keyset-paged alternative to the unbounded list; follow nextCursor until it is absent
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPage<AttendanceDTO>>> getAttendancePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+        
+        try {
+            CursorPage<AttendanceDTO> page = attendanceService.getAttendancePageByOrganization(
+                    currentUser.getOrganization().getId(), cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page, "Attendance retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // The check-in is durable once acknowledged but reaches the attendance list shortly after;
+    // 404 for an unknown employee
     @PostMapping("/check-in/{employeeId}")
     public ResponseEntity<AttendanceDTO> checkIn(@PathVariable UUID employeeId) {
-        return attendanceService.recordCheckIn(employeeId)
-                .map(dto -> ResponseEntity.status(HttpStatus.CREATED).body(dto))
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return checkInIngestionService.checkIn(employeeId)
+                    .map(dto -> ResponseEntity.status(HttpStatus.ACCEPTED).body(dto))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    @GetMapping("/worked-minutes")
+    public ResponseEntity<ApiResponse<Map<UUID, Long>>> getWorkedMinutes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+
+        Map<UUID, Long> workedMinutes = attendanceService.getWorkedMinutesByOrganization(
+                currentUser.getOrganization().getId(), startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(workedMinutes, "Worked minutes retrieved successfully"));
+    }
+
+    @PostMapping("/worked-minutes/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildWorkedMinutesLedger(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+
+        int rows = attendanceService.rebuildWorkedMinutesLedger(
+                currentUser.getOrganization().getId(), startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(rows, "Worked minutes ledger rebuilt successfully"));
+    }
+
+    // Bulk import of a badge system export; see AttendanceImportService for the expected columns
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AttendanceImportResultDTO>> importAttendance(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            AttendanceImportResultDTO result = attendanceImportService.importCsv(
+                    currentUser.getOrganization().getId(), input);
+            return ResponseEntity.ok(ApiResponse.success(result, "Attendance imported successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Could not read the uploaded file"));
+        }
     }
 
     @PutMapping("/check-out/{attendanceId}")
     public ResponseEntity<AttendanceDTO> checkOut(@PathVariable UUID attendanceId) {
+        checkInIngestionService.flushUnwrittenCheckIn(attendanceId);
         return attendanceService.recordCheckOut(attendanceId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // For terminals that only know the employee; 404 when the employee has no open shift
+    @PutMapping("/check-out/employee/{employeeId}")
+    public ResponseEntity<AttendanceDTO> checkOutByEmployee(@PathVariable UUID employeeId,
+                                                            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        checkInIngestionService.flushRecentCheckIn(employeeId);
+        return attendanceService.recordCheckOutByEmployee(employeeId, currentUser.getOrganization().getId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -9,25 +9,27 @@ import com.payroll.payroll_system.dto.PasswordChangeRequest;
 import com.payroll.payroll_system.dto.PasswordResetRequest;
 import com.payroll.payroll_system.dto.PasswordResetTokenRequest;
 import com.payroll.payroll_system.entity.User;
+import com.payroll.payroll_system.security.TokenRevocationList;
+import com.payroll.payroll_system.service.LoginService;
 import com.payroll.payroll_system.service.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -36,45 +38,66 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final JwtTokenUtil jwtTokenUtil;
     private final UserService userService;
+    private final TokenRevocationList tokenRevocationList;
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody AuthRequest authRequest) {
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(@Valid @RequestBody AuthRequest authRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            authRequest.getUsername(),
-                            authRequest.getPassword()
-                    )
-            );
+            return loginService.authenticate(authRequest.getUsername(), authRequest.getPassword())
+                    .handle((user, e) -> {
+                        if (e == null) {
+                            return loginResponse(user);
+                        }
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof BadCredentialsException) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                    .body(ApiResponse.error("Invalid username or password"));
+                        }
+                        throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+                    });
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Too many login attempts, please try again shortly")));
+        }
+    }
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            
-            User user = userService.getCurrentUser(userDetails.getUsername());
-            
-            String token = jwtTokenUtil.generateToken(userDetails);
-            
-            AuthResponse authResponse = new AuthResponse(
-                    token,
-                    user.getId(),
-                    user.getUsername(),
-                    user.getEmail(),
-                    user.getFirstName(),
-                    user.getLastName(),
-                    user.getOrganization() != null ? user.getOrganization().getId() : null,
-                    user.getOrganization() != null ? user.getOrganization().getName() : null,
-                    user.getRoles(),
-                    user.getLastLoginAt()
-            );
-            
-            return ResponseEntity.ok(ApiResponse.success(authResponse, "Login successful", token));
-        } catch (BadCredentialsException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(ApiResponse.error("Invalid username or password"));
+    private ResponseEntity<ApiResponse<AuthResponse>> loginResponse(User user) {
+        // The provider already loaded the user with its roles and organization
+        String token = jwtTokenUtil.generateToken(user);
+        
+        AuthResponse authResponse = new AuthResponse(
+                token,
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getOrganization() != null ? user.getOrganization().getId() : null,
+                user.getOrganization() != null ? user.getOrganization().getName() : null,
+                user.getRoles(),
+                user.getLastLoginAt()
+        );
+        
+        return ResponseEntity.ok(ApiResponse.success(authResponse, "Login successful", token));
+    }
+
+    // Revokes the presented token; other sessions of the user keep working
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestHeader("Authorization") String authHeader) {
+        SecurityContextHolder.clearContext();
+        if (!authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Bearer token required"));
+        }
+        try {
+            tokenRevocationList.revokeToken(jwtTokenUtil.getTokenIdFromToken(authHeader.substring(7)));
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired or invalid tokens are already rejected, there is nothing left to revoke
+            log.debug("Logout with an unusable token: {}", e.getMessage());
         }
+        return ResponseEntity.ok(ApiResponse.success(null, "Logout successful"));
     }
 
     @PostMapping("/register")
@@ -127,15 +150,17 @@ public class AuthController {
 
     @PostMapping("/change-password")
     public ResponseEntity<ApiResponse<Void>> changePassword(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody PasswordChangeRequest request) {
         try {
-            userService.changePassword(
-                    userDetails.getUsername(),
+            User user = userService.changePassword(
+                    currentUser.getUsername(),
                     request.getCurrentPassword(),
                     request.getNewPassword()
             );
-            return ResponseEntity.ok(ApiResponse.success(null, "Password changed successfully"));
+            // Tokens issued before the change are no longer accepted, so the caller gets a fresh one
+            String token = jwtTokenUtil.generateToken(user);
+            return ResponseEntity.ok(ApiResponse.success(null, "Password changed successfully", token));
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Current password is incorrect"));
@@ -148,9 +173,7 @@ public class AuthController {
     @GetMapping("/users/organization/{organizationId}")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getUsersByOrganization(
             @PathVariable UUID organizationId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         
         // Check if the user belongs to the requested organization or has admin role
         if (currentUser.getOrganization() == null || 
@@ -3,16 +3,17 @@ package com.payroll.payroll_system.controller;
 import com.payroll.payroll_system.dto.*;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.service.BatchJobService;
-import com.payroll.payroll_system.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,14 +23,12 @@ import java.util.UUID;
 public class BatchController {
     
     private final BatchJobService batchJobService;
-    private final UserService userService;
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<List<BatchJobResponseDTO>>> getBatchJobs(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal User currentUser) {
         
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -44,9 +43,8 @@ public class BatchController {
     @GetMapping("/{batchJobId}")
     public ResponseEntity<ApiResponse<BatchJobResponseDTO>> getBatchJobById(
             @PathVariable UUID batchJobId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal User currentUser) {
         
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -62,63 +60,105 @@ public class BatchController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<BatchJobResponseDTO>> processBatchPayroll(
             @Valid @RequestBody BatchPayrollRequestDTO request,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal User currentUser) {
         
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
         }
         
-        // Start processing asynchronously
-        batchJobService.processBatchPayroll(request, currentUser.getOrganization().getId());
+        try {
+            // Items are queued durably and processed in the background by the batch workers
+            BatchJobResponseDTO job = batchJobService.submitBatchPayroll(request, currentUser.getOrganization().getId());
+            
+            return ResponseEntity.accepted()
+                    .body(ApiResponse.success(job, "Batch payroll job submitted successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    // No size cap: the body is parsed incrementally as a JSON array or NDJSON of payroll requests
+    @PostMapping(value = "/payroll/stream",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ApiResponse<BatchJobResponseDTO>> streamBatchPayroll(
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String callbackUrl,
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser) {
         
-        // Create and return initial response
-        BatchJobResponseDTO initialResponse = BatchJobResponseDTO.builder()
-                .status("SUBMITTED")
-                .requestedBy(request.getRequestedBy())
-                .totalRequests(request.getPayrolls().size())
-                .jobType("PAYROLL")
-                .build();
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
         
-        return ResponseEntity.accepted()
-                .body(ApiResponse.success(initialResponse, "Batch payroll job submitted successfully"));
+        try {
+            BatchJobResponseDTO job = batchJobService.submitPayrollStream(request.getInputStream(),
+                    currentUser.getId(), currentUser.getOrganization().getId(), description, callbackUrl);
+            
+            return ResponseEntity.accepted()
+                    .body(ApiResponse.success(job, "Batch payroll stream received successfully"));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/payroll/organization")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ApiResponse<BatchJobResponseDTO>> runOrganizationPayroll(
+            @Valid @RequestBody OrganizationPayrollRunRequestDTO request,
+            @AuthenticationPrincipal User currentUser) {
+        
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+        
+        try {
+            // Covers every active employee of the caller's organization
+            BatchJobResponseDTO job = batchJobService.submitOrganizationPayroll(request, currentUser.getId(),
+                    currentUser.getOrganization().getId());
+            
+            return ResponseEntity.accepted()
+                    .body(ApiResponse.success(job, "Organization payroll run submitted successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
     }
     
     @PostMapping("/advances")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<BatchJobResponseDTO>> processBatchAdvances(
             @Valid @RequestBody BatchAdvanceRequestDTO request,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal User currentUser) {
         
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
         }
         
-        // Start processing asynchronously
-        batchJobService.processBatchAdvances(request, currentUser.getOrganization().getId());
-        
-        // Create and return initial response
-        BatchJobResponseDTO initialResponse = BatchJobResponseDTO.builder()
-                .status("SUBMITTED")
-                .requestedBy(request.getRequestedBy())
-                .totalRequests(request.getRequests().size())
-                .jobType("ADVANCE")
-                .build();
-        
-        return ResponseEntity.accepted()
-                .body(ApiResponse.success(initialResponse, "Batch advance job submitted successfully"));
+        try {
+            // Items are queued durably and processed in the background by the batch workers
+            BatchJobResponseDTO job = batchJobService.submitBatchAdvances(request, currentUser.getOrganization().getId());
+            
+            return ResponseEntity.accepted()
+                    .body(ApiResponse.success(job, "Batch advance job submitted successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
     }
     
     @PostMapping("/advances/action")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<String>> batchAdvanceAction(
             @Valid @RequestBody BatchAdvanceActionDTO request,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal User currentUser) {
         
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
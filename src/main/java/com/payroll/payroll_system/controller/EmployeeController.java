@@ -4,13 +4,11 @@ import com.payroll.payroll_system.dto.ApiResponse;
 import com.payroll.payroll_system.dto.EmployeeDTO;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.service.EmployeeService;
-import com.payroll.payroll_system.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,12 +19,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class EmployeeController {
     private final EmployeeService employeeService;
-    private final UserService userService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<EmployeeDTO>>> getEmployeesByOrganization(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.ok(ApiResponse.success(List.of(), "No organization assigned"));
         }
@@ -37,8 +33,7 @@ public class EmployeeController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<EmployeeDTO>> getEmployeeById(
             @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -54,8 +49,7 @@ public class EmployeeController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<EmployeeDTO>> createEmployee(
             @RequestBody EmployeeDTO employeeDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -73,8 +67,7 @@ public class EmployeeController {
     public ResponseEntity<ApiResponse<EmployeeDTO>> updateEmployee(
             @PathVariable UUID id,
             @RequestBody EmployeeDTO employeeDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -90,8 +83,7 @@ public class EmployeeController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteEmployee(
             @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
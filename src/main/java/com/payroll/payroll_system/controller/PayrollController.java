@@ -1,18 +1,17 @@
 package com.payroll.payroll_system.controller;
 
 import com.payroll.payroll_system.dto.ApiResponse;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.dto.PayrollDTO;
 import com.payroll.payroll_system.dto.PayrollGenerateRequestDTO;
 import com.payroll.payroll_system.dto.PayrollStatusUpdateDTO;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.service.PayrollService;
-import com.payroll.payroll_system.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,12 +22,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PayrollController {
     private final PayrollService payrollService;
-    private final UserService userService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<PayrollDTO>>> getPayrollsByOrganization(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.ok(ApiResponse.success(List.of(), "No organization assigned"));
         }
@@ -36,11 +33,31 @@ public class PayrollController {
         return ResponseEntity.ok(ApiResponse.success(payrolls, "Payrolls retrieved successfully"));
     }
 
+    // Keyset-paged alternative to the unbounded list; follow nextCursor until it is absent
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPage<PayrollDTO>>> getPayrollPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getOrganization() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Access denied, no organization assigned"));
+        }
+        
+        try {
+            CursorPage<PayrollDTO> page = payrollService.getPayrollPageByOrganization(
+                    currentUser.getOrganization().getId(), cursor, size);
+            return ResponseEntity.ok(ApiResponse.success(page, "Payrolls retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<ApiResponse<List<PayrollDTO>>> getPayrollsByEmployeeId(
             @PathVariable UUID employeeId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -56,8 +73,7 @@ public class PayrollController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<PayrollDTO>> generatePayroll(
             @RequestBody PayrollGenerateRequestDTO request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
@@ -79,8 +95,7 @@ public class PayrollController {
     public ResponseEntity<ApiResponse<PayrollDTO>> updatePayrollStatus(
             @PathVariable UUID payrollId,
             @RequestBody PayrollStatusUpdateDTO request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = userService.getCurrentUser(userDetails.getUsername());
+            @AuthenticationPrincipal User currentUser) {
         if (currentUser.getOrganization() == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(ApiResponse.error("Access denied, no organization assigned"));
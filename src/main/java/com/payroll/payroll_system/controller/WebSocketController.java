@@ -3,6 +3,7 @@ package com.payroll.payroll_system.controller;
 import com.payroll.payroll_system.dto.*;
 import com.payroll.payroll_system.service.ActivityService;
 import com.payroll.payroll_system.service.AttendanceService;
+import com.payroll.payroll_system.service.CheckInIngestionService;
 import com.payroll.payroll_system.service.PayrollService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -17,6 +18,9 @@ import java.util.UUID;
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private CheckInIngestionService checkInIngestionService;
+
     @Autowired
     private ActivityService activityService;
 
@@ -27,17 +31,27 @@ import java.util.UUID;
     @MessageMapping("/attendance/check-in")
     @SendTo("/topic/attendance")
     public AttendanceDTO checkIn(UUID employeeId) {
-        Optional<AttendanceDTO> result = attendanceService.recordCheckIn(employeeId);
+        Optional<AttendanceDTO> result = checkInIngestionService.checkIn(employeeId);
         return result.orElseThrow(() -> new RuntimeException("Employee not found: " + employeeId));
     }
 
     @MessageMapping("/attendance/check-out")
     @SendTo("/topic/attendance")
     public AttendanceDTO checkOut(UUID attendanceId) {
+        checkInIngestionService.flushUnwrittenCheckIn(attendanceId);
         Optional<AttendanceDTO> result = attendanceService.recordCheckOut(attendanceId);
         return result.orElseThrow(() -> new RuntimeException("Attendance record not found: " + attendanceId));
     }
 
+    @MessageMapping("/attendance/check-out/employee")
+    @SendTo("/topic/attendance")
+    public AttendanceDTO checkOutByEmployee(UUID employeeId) {
+        checkInIngestionService.flushRecentCheckIn(employeeId);
+        // Terminal taps carry no organization, like check-ins on this channel
+        Optional<AttendanceDTO> result = attendanceService.recordCheckOutByEmployee(employeeId, null);
+        return result.orElseThrow(() -> new RuntimeException("No open shift for employee: " + employeeId));
+    }
+
     // Activity WebSocket handlers
     @MessageMapping("/activity/start")
     @SendTo("/topic/activity")
@@ -3,6 +3,7 @@ package com.payroll.payroll_system.dto;
 import com.payroll.payroll_system.constant.ActivityType;
 import lombok.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -19,6 +20,13 @@ public class ActivityDTO {
     private LocalDateTime endTime;
     private long durationInMinutes;
 
+    // Used by the constructor-expression queries in ActivityRepository
+    public ActivityDTO(UUID id, UUID employeeId, String description, ActivityType type,
+                       LocalDateTime startTime, LocalDateTime endTime) {
+        this(id, employeeId, description, type, startTime, endTime,
+                startTime == null || endTime == null ? 0 : Duration.between(startTime, endTime).toMinutes());
+    }
+
     public UUID getId() {
         return id;
     }
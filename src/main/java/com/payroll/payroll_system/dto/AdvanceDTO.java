@@ -35,4 +35,34 @@ public class AdvanceDTO {
     private boolean fullyRepaid;
     private BigDecimal repaidAmount;
     private BigDecimal remainingAmount;
+
+    // Used by the constructor-expression queries in AdvanceRepository; the approver columns are null
+    // for advances nobody has decided on yet
+    public AdvanceDTO(UUID id, UUID employeeId, String employeeFirstName, String employeeLastName,
+                      UUID organizationId, String organizationName, BigDecimal amount, String reason, String status,
+                      String rejectionReason, UUID approvedById, String approvedByFirstName, String approvedByLastName,
+                      LocalDateTime approvalDate, LocalDateTime requestDate, LocalDateTime repaymentDate,
+                      boolean fullyRepaid, BigDecimal repaidAmount) {
+        this.id = id;
+        this.employeeId = employeeId;
+        this.employeeName = employeeFirstName + " " + employeeLastName;
+        this.organizationId = organizationId;
+        this.organizationName = organizationName;
+        this.amount = amount;
+        this.reason = reason;
+        this.status = status;
+        this.rejectionReason = rejectionReason;
+        if (approvedById != null) {
+            this.approvedById = approvedById;
+            this.approvedByName = approvedByFirstName + " " + approvedByLastName;
+        }
+        this.approvalDate = approvalDate;
+        this.requestDate = requestDate;
+        this.repaymentDate = repaymentDate;
+        this.fullyRepaid = fullyRepaid;
+        this.repaidAmount = repaidAmount;
+        if (amount != null && repaidAmount != null) {
+            this.remainingAmount = amount.subtract(repaidAmount);
+        }
+    }
 } 
\ No newline at end of file
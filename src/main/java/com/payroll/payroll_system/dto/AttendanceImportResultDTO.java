@@ -0,0 +1,41 @@
+package com.payroll.payroll_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceImportResultDTO {
+
+    private long rowsRead;
+
+    // Attendance records written, paired or not
+    private long attendanceCreated;
+
+    // Shifts skipped because an earlier import (or check-in) already stored them
+    private long alreadyImported;
+
+    // Open shifts from before the file (an earlier file or a terminal tap) closed by its check-outs
+    private long storedShiftsClosed;
+
+    // Check-ins without a matching check-out, written without one
+    private long unpairedCheckIns;
+
+    private long errorCount;
+
+    // Only the first errors are listed, errorCount has the total
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
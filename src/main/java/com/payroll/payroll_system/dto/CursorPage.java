@@ -0,0 +1,42 @@
+package com.payroll.payroll_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.payroll.payroll_system.util.PageCursor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    public static final int MAX_SIZE = 200;
+    
+    private List<T> items;
+    
+    // Absent on the last page
+    private String nextCursor;
+    
+    private int size;
+    
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+    
+    // Rows are fetched with one extra row to learn whether another page follows without a count query
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper, Function<E, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .items(pageRows.stream().map(mapper).toList())
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(size - 1)).encode() : null)
+                .size(pageRows.size())
+                .build();
+    }
+}
@@ -2,14 +2,17 @@ package com.payroll.payroll_system.dto;
 
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Data
-public class EmployeeDTO {
+@NoArgsConstructor
+public class EmployeeDTO implements Serializable {
     private UUID id;
     private String firstName;
     private String lastName;
@@ -21,6 +24,22 @@ public class EmployeeDTO {
     private UUID organizationId;
     private String organizationName;
 
+    // Used by the constructor-expression queries in EmployeeRepository
+    public EmployeeDTO(UUID id, String firstName, String lastName, String email, LocalDate dateOfJoining,
+                       BigDecimal baseSalary, UUID departmentId, String departmentName,
+                       UUID organizationId, String organizationName) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.dateOfJoining = dateOfJoining;
+        this.baseSalary = baseSalary;
+        this.departmentId = departmentId;
+        this.departmentName = departmentName;
+        this.organizationId = organizationId;
+        this.organizationName = organizationName;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -22,6 +22,28 @@ public class PayrollDTO {
     private PayrollStatus status;
     private LocalDateTime processedAt;
 
+    public PayrollDTO() {
+    }
+
+    // Used by the constructor-expression queries in PayrollRepository
+    public PayrollDTO(UUID id, UUID employeeId, String employeeFirstName, String employeeLastName,
+                      LocalDate payPeriodStart, LocalDate payPeriodEnd, BigDecimal basicSalary, BigDecimal overtime,
+                      BigDecimal deductions, BigDecimal bonus, BigDecimal netSalary, PayrollStatus status,
+                      LocalDateTime processedAt) {
+        this.id = id;
+        this.employeeId = employeeId;
+        this.employeeName = employeeFirstName + " " + employeeLastName;
+        this.payPeriodStart = payPeriodStart;
+        this.payPeriodEnd = payPeriodEnd;
+        this.basicSalary = basicSalary;
+        this.overtime = overtime;
+        this.deductions = deductions;
+        this.bonus = bonus;
+        this.netSalary = netSalary;
+        this.status = status;
+        this.processedAt = processedAt;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -13,10 +13,12 @@ import java.util.UUID;
 @Table(name = "activities")
 public class Activity {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     private String description;
+    // Partition key of the activities table (V6 migration)
+    @Column(nullable = false)
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private ActivityType type;
@@ -12,12 +12,16 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "attendance")
+@Table(name = "attendance",
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_employee_check_in",
+                columnNames = {"employee_id", "check_in"}))
 public class Attendance {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
+    // Partition key of the attendance table (V6 migration)
+    @Column(nullable = false)
     private LocalDateTime checkIn;
     private LocalDateTime checkOut;
 
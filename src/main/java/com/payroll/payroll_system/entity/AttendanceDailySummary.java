@@ -0,0 +1,36 @@
+package com.payroll.payroll_system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Per-employee, per-day rollup of worked minutes, maintained on check-out so payroll and
+// reporting read one small row per day instead of scanning raw attendance
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "attendance_daily_summaries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"employee_id", "work_date"}))
+public class AttendanceDailySummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Column(name = "work_date", nullable = false)
+    private LocalDate workDate;
+
+    @Column(nullable = false)
+    private long workedMinutes;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.payroll.payroll_system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One unit of work of a batch job. Items are the durable queue behind batch_jobs: workers claim
+// PENDING rows with FOR UPDATE SKIP LOCKED and checkpoint them as DONE or FAILED
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "batch_job_items",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"batch_job_id", "seq"}),
+        indexes = @Index(name = "idx_batch_job_items_status_created", columnList = "status, created_at"))
+public class BatchJobItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_job_id", nullable = false)
+    private BatchJob batchJob;
+
+    @Column(nullable = false)
+    private int seq;
+
+    // Request DTO serialized as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // PENDING, PROCESSING, DONE or FAILED
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    private String claimedBy;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -13,10 +13,12 @@ import java.util.UUID;
 
 @Entity
 @Data
-@Table(name = "payrolls")
+@Table(name = "payrolls",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payrolls_employee_period",
+                columnNames = {"employee_id", "pay_period_start", "pay_period_end"}))
 public class Payroll {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     private LocalDate payPeriodStart;
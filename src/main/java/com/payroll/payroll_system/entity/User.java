@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -46,6 +47,11 @@ public class User implements UserDetails {
     private LocalDateTime updatedAt;
     private LocalDateTime lastLoginAt;
     
+    // Carried in every token as the "ver" claim; bumping it invalidates all tokens issued before
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion;
+    
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
@@ -1,8 +1,12 @@
 package com.payroll.payroll_system.repository;
 
 import com.payroll.payroll_system.constant.ActivityType;
+import com.payroll.payroll_system.dto.ActivityDTO;
 import com.payroll.payroll_system.entity.Activity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -24,4 +28,35 @@ public interface ActivityRepository extends JpaRepository<Activity, UUID> {
     List<Activity> findByEmployeeIdAndEmployeeOrganizationId(UUID employeeId, UUID organizationId);
 
     Optional<Activity> findByIdAndEmployeeOrganizationId(UUID activityId, UUID organizationId);
-}
\ No newline at end of file
+
+    // Read-only list projections; the employee id is the activity's own foreign key, so no join is needed for it
+    String ACTIVITY_DTO_SELECT = "SELECT new com.payroll.payroll_system.dto.ActivityDTO(a.id, a.employee.id, " +
+            "a.description, a.type, a.startTime, a.endTime) FROM Activity a ";
+
+    @Query(ACTIVITY_DTO_SELECT + "WHERE a.employee.id = :employeeId")
+    List<ActivityDTO> findActivityDTOsByEmployeeId(@Param("employeeId") UUID employeeId);
+
+    @Query(ACTIVITY_DTO_SELECT + "WHERE a.employee.organization.id = :organizationId")
+    List<ActivityDTO> findActivityDTOsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    @Query(ACTIVITY_DTO_SELECT + "WHERE a.employee.id = :employeeId AND a.employee.organization.id = :organizationId")
+    List<ActivityDTO> findActivityDTOsByEmployeeIdAndOrganizationId(
+            @Param("employeeId") UUID employeeId,
+            @Param("organizationId") UUID organizationId);
+
+    // Keyset pages ordered by startTime DESC, id DESC; pass the last row of the previous page
+    @Query(ACTIVITY_DTO_SELECT + "WHERE a.employee.organization.id = :organizationId " +
+            "ORDER BY a.startTime DESC, a.id DESC")
+    List<ActivityDTO> findFirstActivitiesPageByOrganizationId(
+            @Param("organizationId") UUID organizationId,
+            Limit limit);
+
+    @Query(ACTIVITY_DTO_SELECT + "WHERE a.employee.organization.id = :organizationId " +
+            "AND (a.startTime < :sortKey OR (a.startTime = :sortKey AND a.id < :id)) " +
+            "ORDER BY a.startTime DESC, a.id DESC")
+    List<ActivityDTO> findActivitiesPageByOrganizationIdAfter(
+            @Param("organizationId") UUID organizationId,
+            @Param("sortKey") LocalDateTime sortKey,
+            @Param("id") UUID id,
+            Limit limit);
+}
@@ -1,9 +1,14 @@
 package com.payroll.payroll_system.repository;
 
+import com.payroll.payroll_system.dto.AdvanceDTO;
 import com.payroll.payroll_system.entity.Advance;
 import com.payroll.payroll_system.entity.Employee;
 import com.payroll.payroll_system.entity.Organization;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -12,12 +17,52 @@ import java.util.UUID;
 
 @Repository
 public interface AdvanceRepository extends JpaRepository<Advance, UUID> {
+    // Advance, employee and approver are all eager; list reads load them in one query
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization", "organization", "approvedBy", "approvedBy.roles"})
     List<Advance> findByEmployee(Employee employee);
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization", "organization", "approvedBy", "approvedBy.roles"})
     List<Advance> findByOrganization(Organization organization);
     List<Advance> findByStatus(String status);
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization", "organization", "approvedBy", "approvedBy.roles"})
     List<Advance> findByEmployeeAndStatus(Employee employee, String status);
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization", "organization", "approvedBy", "approvedBy.roles"})
     List<Advance> findByOrganizationAndStatus(Organization organization, String status);
     List<Advance> findByRequestDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     List<Advance> findByRepaymentDateBefore(LocalDateTime date);
     List<Advance> findByEmployeeAndFullyRepaid(Employee employee, boolean fullyRepaid);
-} 
\ No newline at end of file
+
+    // Read-only list projections; the approver is outer-joined because pending advances have none
+    String ADVANCE_DTO_SELECT = "SELECT new com.payroll.payroll_system.dto.AdvanceDTO(a.id, e.id, e.firstName, e.lastName, " +
+            "o.id, o.name, a.amount, a.reason, a.status, a.rejectionReason, u.id, u.firstName, u.lastName, " +
+            "a.approvalDate, a.requestDate, a.repaymentDate, a.fullyRepaid, a.repaidAmount) " +
+            "FROM Advance a JOIN a.employee e JOIN a.organization o LEFT JOIN a.approvedBy u ";
+
+    // status is optional in the projections below; null matches every status
+    @Query(ADVANCE_DTO_SELECT + "WHERE o.id = :organizationId AND (:status IS NULL OR a.status = :status)")
+    List<AdvanceDTO> findAdvanceDTOsByOrganizationId(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status);
+
+    @Query(ADVANCE_DTO_SELECT + "WHERE e.id = :employeeId AND (:status IS NULL OR a.status = :status)")
+    List<AdvanceDTO> findAdvanceDTOsByEmployeeId(
+            @Param("employeeId") UUID employeeId,
+            @Param("status") String status);
+
+    // Keyset pages ordered by requestDate DESC, id DESC; pass the last row of the previous page
+    @Query(ADVANCE_DTO_SELECT + "WHERE o.id = :organizationId AND (:status IS NULL OR a.status = :status) " +
+            "ORDER BY a.requestDate DESC, a.id DESC")
+    List<AdvanceDTO> findFirstAdvancesPageByOrganizationId(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status,
+            Limit limit);
+
+    @Query(ADVANCE_DTO_SELECT + "WHERE o.id = :organizationId AND (:status IS NULL OR a.status = :status) " +
+            "AND (a.requestDate < :sortKey OR (a.requestDate = :sortKey AND a.id < :id)) " +
+            "ORDER BY a.requestDate DESC, a.id DESC")
+    List<AdvanceDTO> findAdvancesPageByOrganizationIdAfter(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") String status,
+            @Param("sortKey") LocalDateTime sortKey,
+            @Param("id") UUID id,
+            Limit limit);
+}
@@ -0,0 +1,81 @@
+package com.payroll.payroll_system.repository;
+
+import com.payroll.payroll_system.entity.AttendanceDailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AttendanceDailySummaryRepository extends JpaRepository<AttendanceDailySummary, UUID> {
+
+    // Adds (or with a negative value, removes) minutes to the employee's row for the day
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_summaries (id, employee_id, work_date, worked_minutes, updated_at) " +
+            "VALUES (gen_random_uuid(), :employeeId, :workDate, :minutes, now()) " +
+            "ON CONFLICT (employee_id, work_date) DO UPDATE SET " +
+            "worked_minutes = attendance_daily_summaries.worked_minutes + EXCLUDED.worked_minutes, updated_at = now()",
+            nativeQuery = true)
+    int addWorkedMinutes(
+            @Param("employeeId") UUID employeeId,
+            @Param("workDate") LocalDate workDate,
+            @Param("minutes") long minutes);
+
+    // Rows are [employeeId, workedMinutes]
+    @Query("SELECT s.employee.id, SUM(s.workedMinutes) FROM AttendanceDailySummary s " +
+            "WHERE s.employee.organization.id = :organizationId AND s.workDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY s.employee.id")
+    List<Object[]> sumWorkedMinutesByOrganization(
+            @Param("organizationId") UUID organizationId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT s.employee.id, SUM(s.workedMinutes) FROM AttendanceDailySummary s " +
+            "WHERE s.employee.id IN :employeeIds AND s.workDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY s.employee.id")
+    List<Object[]> sumWorkedMinutesForEmployees(
+            @Param("employeeIds") Collection<UUID> employeeIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(s.workedMinutes), 0) FROM AttendanceDailySummary s " +
+            "WHERE s.employee.id = :employeeId AND s.workDate BETWEEN :startDate AND :endDate")
+    long sumWorkedMinutes(
+            @Param("employeeId") UUID employeeId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_daily_summaries s USING employees e " +
+            "WHERE e.id = s.employee_id AND e.organization_id = :organizationId " +
+            "AND s.work_date BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteByOrganizationAndPeriod(
+            @Param("organizationId") UUID organizationId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Recomputes the rollup from raw attendance, archived months included; shifts are attributed to their
+    // check-in day
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_summaries (id, employee_id, work_date, worked_minutes, updated_at) " +
+            "SELECT gen_random_uuid(), a.employee_id, CAST(a.check_in AS DATE), " +
+            "CAST(SUM(TRUNC(EXTRACT(EPOCH FROM (a.check_out - a.check_in)) / 60)) AS BIGINT), now() " +
+            "FROM (SELECT employee_id, check_in, check_out FROM attendance " +
+            "UNION ALL SELECT employee_id, check_in, check_out FROM attendance_archive) a " +
+            "JOIN employees e ON e.id = a.employee_id " +
+            "WHERE e.organization_id = :organizationId AND a.check_out IS NOT NULL " +
+            "AND a.check_in >= :startDate AND a.check_in < CAST(:endDate AS DATE) + 1 " +
+            "GROUP BY a.employee_id, CAST(a.check_in AS DATE) " +
+            "ON CONFLICT (employee_id, work_date) DO UPDATE SET " +
+            "worked_minutes = EXCLUDED.worked_minutes, updated_at = now()", nativeQuery = true)
+    int rebuildFromAttendance(
+            @Param("organizationId") UUID organizationId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -1,7 +1,10 @@
 package com.payroll.payroll_system.repository;
 
 import com.payroll.payroll_system.entity.Attendance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,15 +15,51 @@ import java.util.UUID;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
+    // The DTO shows the employee name, so the employee and its eager associations come in the same query
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization"})
     List<Attendance> findByEmployeeId(UUID employeeId);
 
     List<Attendance> findByEmployeeIdAndCheckInBetween(
             UUID employeeId, LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT SUM(a.checkOut - a.checkIn) FROM Attendance a " +
-            "WHERE a.employee.id = :employeeId AND a.checkIn >= :startDate AND a.checkOut <= :endDate")
-    Long getTotalWorkingTimeForEmployee(
+    // Whether a shift of the employee already ends at this check-out; tells a re-imported check-out apart
+    boolean existsByEmployeeIdAndCheckOut(UUID employeeId, LocalDateTime checkOut);
+
+    // Rows are [attendanceId, employeeId, checkIn]; served by the partial idx_attendance_open_shift index
+    @Query("SELECT a.id, a.employee.id, a.checkIn FROM Attendance a WHERE a.checkOut IS NULL")
+    List<Object[]> findOpenShifts();
+
+    // The employee's latest open shift, for check-outs the open shift index cannot answer (shifts opened
+    // on another instance, or not yet known here); served by idx_attendance_open_shift. A null
+    // organization leaves the lookup unscoped, for the terminal channel.
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.employee e WHERE e.id = :employeeId " +
+            "AND (:organizationId IS NULL OR e.organization.id = :organizationId) AND a.checkOut IS NULL " +
+            "ORDER BY a.checkIn DESC")
+    List<Attendance> findOpenShiftByEmployeeId(
             @Param("employeeId") UUID employeeId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate);
+            @Param("organizationId") UUID organizationId,
+            Limit limit);
+
+    // Closes forgotten shifts with no worked time, so a missing punch never pays out a full shift
+    @Modifying
+    @Query("UPDATE Attendance a SET a.checkOut = a.checkIn WHERE a.checkOut IS NULL AND a.checkIn < :cutoff")
+    int closeShiftsOpenedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Keyset pages ordered by checkIn DESC, id DESC; pass the last row of the previous page
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.employee e LEFT JOIN FETCH e.department d LEFT JOIN FETCH d.organization " +
+            "LEFT JOIN FETCH e.organization WHERE e.organization.id = :organizationId " +
+            "ORDER BY a.checkIn DESC, a.id DESC")
+    List<Attendance> findFirstAttendancePageByOrganizationId(
+            @Param("organizationId") UUID organizationId,
+            Limit limit);
+
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.employee e LEFT JOIN FETCH e.department d LEFT JOIN FETCH d.organization " +
+            "LEFT JOIN FETCH e.organization WHERE e.organization.id = :organizationId " +
+            "AND (a.checkIn < :sortKey OR (a.checkIn = :sortKey AND a.id < :id)) " +
+            "ORDER BY a.checkIn DESC, a.id DESC")
+    List<Attendance> findAttendancePageByOrganizationIdAfter(
+            @Param("organizationId") UUID organizationId,
+            @Param("sortKey") LocalDateTime sortKey,
+            @Param("id") UUID id,
+            Limit limit);
 }
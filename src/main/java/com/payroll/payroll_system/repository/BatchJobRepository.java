@@ -3,7 +3,11 @@ package com.payroll.payroll_system.repository;
 import com.payroll.payroll_system.entity.BatchJob;
 import com.payroll.payroll_system.entity.Organization;
 import com.payroll.payroll_system.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -13,6 +17,8 @@ import java.util.UUID;
 
 @Repository
 public interface BatchJobRepository extends JpaRepository<BatchJob, UUID> {
+    // The requesting user is eager together with its roles; fetched with the jobs instead of once per job
+    @EntityGraph(attributePaths = {"organization", "requestedBy", "requestedBy.roles", "requestedBy.organization"})
     List<BatchJob> findByOrganization(Organization organization);
     
     List<BatchJob> findByRequestedBy(User user);
@@ -30,4 +36,27 @@ public interface BatchJobRepository extends JpaRepository<BatchJob, UUID> {
     List<BatchJob> findByOrganizationAndSubmittedAtBetween(Organization organization, LocalDateTime start, LocalDateTime end);
     
     Optional<BatchJob> findByIdAndOrganization(UUID id, Organization organization);
-} 
\ No newline at end of file
+    
+    // Only open jobs accept deltas; finished jobs have their counters rebuilt from the queue items
+    @Modifying
+    @Query("UPDATE BatchJob b SET b.processedRequests = b.processedRequests + :processed, " +
+            "b.successfulRequests = b.successfulRequests + :successful, " +
+            "b.failedRequests = b.failedRequests + :failed, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.status IN ('RECEIVING', 'PROCESSING')")
+    int incrementProgress(
+            @Param("id") UUID id,
+            @Param("processed") int processed,
+            @Param("successful") int successful,
+            @Param("failed") int failed);
+    
+    @Modifying
+    @Query("UPDATE BatchJob b SET b.totalRequests = b.totalRequests + :count, b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id")
+    int incrementTotalRequests(@Param("id") UUID id, @Param("count") int count);
+    
+    // Ends the upload phase; from here on the job can complete once its items are done
+    @Modifying
+    @Query("UPDATE BatchJob b SET b.status = 'PROCESSING', b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.status = 'RECEIVING'")
+    int markReceived(@Param("id") UUID id);
+}
@@ -1,8 +1,12 @@
 package com.payroll.payroll_system.repository;
 
+import com.payroll.payroll_system.constant.EmployeeStatus;
+import com.payroll.payroll_system.dto.EmployeeDTO;
 import com.payroll.payroll_system.entity.Department;
 import com.payroll.payroll_system.entity.Employee;
 import com.payroll.payroll_system.entity.Organization;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,18 +14,25 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
+    // Department and organization are eager; list reads fetch them with the employees
+    @EntityGraph(attributePaths = {"department", "department.organization", "organization"})
+    @Override
+    List<Employee> findAll();
+
     List<Employee> findByDepartmentId(UUID departmentId);
 
     @Query("SELECT e FROM Employee e WHERE e.phone = :phone")
     Employee findByPhone(@Param("phone") String phone);
 
     List<Employee> findByDepartment(Department department);
+    @EntityGraph(attributePaths = {"department", "department.organization", "organization"})
     List<Employee> findByOrganization(Organization organization);
     List<Employee> findByDepartmentAndOrganization(Department department, Organization organization);
     Optional<Employee> findByEmail(String email);
@@ -29,4 +40,35 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
     boolean existsByEmail(String email);
     boolean existsByDocumentId(String documentId);
     Optional<Employee> findByIdAndOrganizationId(UUID id, UUID organizationId);
-}
\ No newline at end of file
+    boolean existsByIdAndOrganizationId(UUID id, UUID organizationId);
+
+    // Rows are [employeeId, documentId, phone]; the bulk attendance import resolves employees from these
+    @Query("SELECT e.id, e.documentId, e.phone FROM Employee e WHERE e.organization.id = :organizationId")
+    List<Object[]> findIdentifiersByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    // Read-only list projections: rows go straight into EmployeeDTO without entering the persistence context
+    String EMPLOYEE_DTO_SELECT = "SELECT new com.payroll.payroll_system.dto.EmployeeDTO(e.id, e.firstName, e.lastName, " +
+            "e.email, e.dateOfJoining, e.baseSalary, d.id, d.name, o.id, o.name) " +
+            "FROM Employee e LEFT JOIN e.department d LEFT JOIN e.organization o ";
+
+    @Query(EMPLOYEE_DTO_SELECT)
+    List<EmployeeDTO> findAllEmployeeDTOs();
+
+    @Query(EMPLOYEE_DTO_SELECT + "WHERE o.id = :organizationId")
+    List<EmployeeDTO> findEmployeeDTOsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.department LEFT JOIN FETCH e.organization " +
+            "WHERE e.id IN :ids AND e.organization.id = :organizationId")
+    List<Employee> findAllByIdInAndOrganizationId(
+            @Param("ids") Collection<UUID> ids,
+            @Param("organizationId") UUID organizationId);
+
+    // Keyset page over employee ids; start from the nil UUID and pass the last id of each page
+    @Query("SELECT e.id FROM Employee e WHERE e.organization.id = :organizationId AND e.status = :status " +
+            "AND e.id > :afterId ORDER BY e.id")
+    List<UUID> findIdsByOrganizationIdAndStatusAfter(
+            @Param("organizationId") UUID organizationId,
+            @Param("status") EmployeeStatus status,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+}
@@ -1,17 +1,30 @@
 package com.payroll.payroll_system.repository;
 
 import com.payroll.payroll_system.constant.PayrollStatus;
+import com.payroll.payroll_system.dto.PayrollDTO;
 import com.payroll.payroll_system.entity.Payroll;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PayrollRepository extends JpaRepository<Payroll, UUID> {
+    // List reads fetch the employee with its eager department and organization in the same query
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization"})
+    @Override
+    List<Payroll> findAll();
+
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization"})
     List<Payroll> findByEmployeeId(UUID employeeId);
 
     List<Payroll> findByPayPeriodStartGreaterThanEqualAndPayPeriodEndLessThanEqual(
@@ -19,9 +32,64 @@ public interface PayrollRepository extends JpaRepository<Payroll, UUID> {
 
     List<Payroll> findByStatus(PayrollStatus status);
 
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization"})
     List<Payroll> findByEmployeeOrganizationId(UUID organizationId);
 
+    @EntityGraph(attributePaths = {"employee", "employee.department", "employee.department.organization", "employee.organization"})
     List<Payroll> findByEmployeeIdAndEmployeeOrganizationId(UUID employeeId, UUID organizationId);
 
     Optional<Payroll> findByIdAndEmployeeOrganizationId(UUID id, UUID organizationId);
+
+    Optional<Payroll> findByEmployeeIdAndPayPeriodStartAndPayPeriodEnd(UUID employeeId, LocalDate start, LocalDate end);
+
+    @Query("SELECT p FROM Payroll p JOIN FETCH p.employee " +
+            "WHERE p.employee.id IN :employeeIds AND p.payPeriodStart = :start AND p.payPeriodEnd = :end")
+    List<Payroll> findByEmployeeIdInAndPayPeriod(
+            @Param("employeeIds") Collection<UUID> employeeIds,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
+    // Read-only list projections: rows go straight into PayrollDTO without entering the persistence context
+    String PAYROLL_DTO_SELECT = "SELECT new com.payroll.payroll_system.dto.PayrollDTO(p.id, e.id, e.firstName, e.lastName, " +
+            "p.payPeriodStart, p.payPeriodEnd, p.basicSalary, p.overtime, p.deductions, p.bonus, p.netSalary, " +
+            "p.status, p.processedAt) FROM Payroll p JOIN p.employee e ";
+
+    @Query(PAYROLL_DTO_SELECT)
+    List<PayrollDTO> findAllPayrollDTOs();
+
+    @Query(PAYROLL_DTO_SELECT + "WHERE e.id = :employeeId")
+    List<PayrollDTO> findPayrollDTOsByEmployeeId(@Param("employeeId") UUID employeeId);
+
+    @Query(PAYROLL_DTO_SELECT + "WHERE e.organization.id = :organizationId")
+    List<PayrollDTO> findPayrollDTOsByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    @Query(PAYROLL_DTO_SELECT + "WHERE e.id = :employeeId AND e.organization.id = :organizationId")
+    List<PayrollDTO> findPayrollDTOsByEmployeeIdAndOrganizationId(
+            @Param("employeeId") UUID employeeId,
+            @Param("organizationId") UUID organizationId);
+
+    // Keyset pages ordered by processedAt DESC NULLS LAST, id DESC; pass the last row of the previous
+    // page. Unprocessed payrolls (null processedAt) come last and are paged by id alone.
+    @Query(PAYROLL_DTO_SELECT + "WHERE e.organization.id = :organizationId " +
+            "ORDER BY p.processedAt DESC NULLS LAST, p.id DESC")
+    List<PayrollDTO> findFirstPayrollsPageByOrganizationId(
+            @Param("organizationId") UUID organizationId,
+            Limit limit);
+
+    @Query(PAYROLL_DTO_SELECT + "WHERE e.organization.id = :organizationId " +
+            "AND (p.processedAt < :sortKey OR (p.processedAt = :sortKey AND p.id < :id) OR p.processedAt IS NULL) " +
+            "ORDER BY p.processedAt DESC NULLS LAST, p.id DESC")
+    List<PayrollDTO> findPayrollsPageByOrganizationIdAfter(
+            @Param("organizationId") UUID organizationId,
+            @Param("sortKey") LocalDateTime sortKey,
+            @Param("id") UUID id,
+            Limit limit);
+
+    @Query(PAYROLL_DTO_SELECT + "WHERE e.organization.id = :organizationId " +
+            "AND p.processedAt IS NULL AND p.id < :id " +
+            "ORDER BY p.id DESC")
+    List<PayrollDTO> findUnprocessedPayrollsPageByOrganizationIdAfter(
+            @Param("organizationId") UUID organizationId,
+            @Param("id") UUID id,
+            Limit limit);
 }
@@ -1,15 +1,18 @@
 package com.payroll.payroll_system.security;
 
 import com.payroll.payroll_system.config.JwtTokenUtil;
+import com.payroll.payroll_system.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -22,10 +25,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
 
-    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, @Lazy UserDetailsService userDetailsService) {
+    // Stateless mode trusts the signed claims and never loads the user; role and organization changes
+    // then take effect when the user's current tokens expire or are revoked
+    @Value("${app.security.jwt.stateless:false}")
+    private boolean stateless;
+
+    public JwtAuthenticationFilter(
+            JwtTokenUtil jwtTokenUtil,
+            @Lazy UserDetailsService userDetailsService,
+            PrincipalCache principalCache,
+            TokenRevocationList tokenRevocationList) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Override
@@ -42,16 +58,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         final String jwt = authHeader.substring(7); // Remove "Bearer " prefix
-        final String username = jwtTokenUtil.getUsernameFromToken(jwt);
+        final Claims claims;
+        try {
+            claims = jwtTokenUtil.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // The request continues unauthenticated and is rejected by the authorization rules
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String username = claims.getSubject();
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            int tokenVersion = jwtTokenUtil.getTokenVersion(claims);
+            if (tokenRevocationList.isRevoked(claims.getId(), username, tokenVersion)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            
+            User user = stateless ? jwtTokenUtil.getPrincipalFromClaims(claims) : principalCache.get(username, tokenVersion);
+            if (user == null) {
+                user = (User) this.userDetailsService.loadUserByUsername(username);
+                // A token issued before the last password change carries an older version
+                if (user.getTokenVersion() == tokenVersion) {
+                    principalCache.put(user);
+                } else {
+                    user = null;
+                }
+            }
             
-            if (jwtTokenUtil.validateToken(jwt, userDetails)) {
+            if (user != null && jwtTokenUtil.validateToken(claims, user)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        user,
                         null,
-                        userDetails.getAuthorities()
+                        user.getAuthorities()
                 );
                 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
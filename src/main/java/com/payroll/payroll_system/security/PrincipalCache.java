@@ -0,0 +1,79 @@
+package com.payroll.payroll_system.security;
+
+import com.payroll.payroll_system.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps recently authenticated users in memory so a request with a valid token does not reload the
+// user with its roles, organization and employee. An entry only answers for the token version it was
+// loaded with, so tokens issued before a password change never see it.
+@Component
+public class PrincipalCache {
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.security.principal-cache.ttl:60s}")
+    private Duration ttl;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    public User get(String username, int tokenVersion) {
+        CachedPrincipal cached = principals.get(username);
+        if (cached == null || cached.user().getTokenVersion() != tokenVersion) {
+            return null;
+        }
+        if (cached.expiresAt() < System.currentTimeMillis()) {
+            principals.remove(username, cached);
+            return null;
+        }
+        return cached.user();
+    }
+
+    public void put(User user) {
+        if (principals.size() >= maxSize) {
+            evictExpired();
+        }
+        if (principals.size() >= maxSize) {
+            // Still full of live entries: make room by dropping an arbitrary one
+            Iterator<String> usernames = principals.keySet().iterator();
+            if (usernames.hasNext()) {
+                principals.remove(usernames.next());
+            }
+        }
+        principals.put(user.getUsername(), new CachedPrincipal(user, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    public void invalidate(String username) {
+        principals.remove(username);
+    }
+
+    // Dropping the entry before the change commits would let a concurrent request cache the old row again
+    public void invalidateAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(username);
+            }
+        });
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(cached -> cached.expiresAt() < now);
+    }
+
+    private record CachedPrincipal(User user, long expiresAt) {
+    }
+}
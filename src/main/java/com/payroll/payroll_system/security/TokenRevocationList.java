@@ -0,0 +1,43 @@
+package com.payroll.payroll_system.security;
+
+import com.payroll.payroll_system.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+// Tokens that must stop working before they expire. Single tokens are revoked by id on logout; a
+// password change revokes every token of the user below the new token version. Entries only need to
+// outlive the tokens they revoke, so both caches expire them after app.security.jwt.revocation-ttl and
+// stay small. Revocations only reach every instance through Redis; the in-process fallback
+// (CacheConfig) holds them for the local instance alone.
+@Component
+public class TokenRevocationList {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void revokeToken(String tokenId) {
+        revokedTokens().put(tokenId, Boolean.TRUE);
+    }
+
+    public void revokeTokensBelow(String username, int tokenVersion) {
+        revokedUsers().put(username, tokenVersion);
+    }
+
+    public boolean isRevoked(String tokenId, String username, int tokenVersion) {
+        if (tokenId != null && revokedTokens().get(tokenId) != null) {
+            return true;
+        }
+        Integer minimumVersion = revokedUsers().get(username, Integer.class);
+        return minimumVersion != null && tokenVersion < minimumVersion;
+    }
+
+    private Cache revokedTokens() {
+        return cacheManager.getCache(CacheConfig.REVOKED_TOKENS);
+    }
+
+    private Cache revokedUsers() {
+        return cacheManager.getCache(CacheConfig.REVOKED_USERS);
+    }
+}
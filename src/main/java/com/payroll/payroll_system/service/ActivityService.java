@@ -2,11 +2,14 @@ package com.payroll.payroll_system.service;
 
 import com.payroll.payroll_system.dto.ActivityCreateDTO;
 import com.payroll.payroll_system.dto.ActivityDTO;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.entity.Activity;
 import com.payroll.payroll_system.repository.ActivityRepository;
 import com.payroll.payroll_system.repository.EmployeeRepository;
+import com.payroll.payroll_system.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,7 +17,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class ActivityService {
@@ -26,9 +29,7 @@ public class ActivityService {
 
     @Transactional(readOnly = true)
     public List<ActivityDTO> getActivitiesByEmployeeId(UUID employeeId) {
-        return activityRepository.findByEmployeeId(employeeId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activityRepository.findActivityDTOsByEmployeeId(employeeId);
     }
 
     @Transactional
@@ -54,15 +55,23 @@ public class ActivityService {
     }
 
     public List<ActivityDTO> getActivitiesByOrganization(UUID organizationId) {
-        return activityRepository.findByEmployeeOrganizationId(organizationId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activityRepository.findActivityDTOsByOrganizationId(organizationId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ActivityDTO> getActivityPageByOrganization(UUID organizationId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<ActivityDTO> rows = after == null
+                ? activityRepository.findFirstActivitiesPageByOrganizationId(organizationId, Limit.of(pageSize + 1))
+                : activityRepository.findActivitiesPageByOrganizationIdAfter(
+                        organizationId, after.sortKey(), after.id(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Function.identity(),
+                activity -> new PageCursor(activity.getStartTime(), activity.getId()));
     }
 
     public List<ActivityDTO> getActivitiesByEmployeeIdAndOrganization(UUID employeeId, UUID organizationId) {
-        return activityRepository.findByEmployeeIdAndEmployeeOrganizationId(employeeId, organizationId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activityRepository.findActivityDTOsByEmployeeIdAndOrganizationId(employeeId, organizationId);
     }
 
     public Optional<ActivityDTO> startActivityForOrganization(UUID employeeId, ActivityCreateDTO activityDTO, UUID organizationId) {
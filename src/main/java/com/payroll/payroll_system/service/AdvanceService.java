@@ -2,6 +2,7 @@ package com.payroll.payroll_system.service;
 
 import com.payroll.payroll_system.dto.AdvanceDTO;
 import com.payroll.payroll_system.dto.AdvanceRequestDTO;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.entity.Advance;
 import com.payroll.payroll_system.entity.Employee;
 import com.payroll.payroll_system.entity.Organization;
@@ -10,7 +11,9 @@ import com.payroll.payroll_system.repository.AdvanceRepository;
 import com.payroll.payroll_system.repository.EmployeeRepository;
 import com.payroll.payroll_system.repository.OrganizationRepository;
 import com.payroll.payroll_system.repository.UserRepository;
+import com.payroll.payroll_system.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +22,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class AdvanceService {
@@ -35,48 +38,56 @@ public class AdvanceService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OrganizationService organizationService;
+    
     @Transactional(readOnly = true)
     public List<AdvanceDTO> getAdvancesByOrganization(UUID organizationId) {
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+        if (!organizationService.organizationExists(organizationId)) {
+            throw new IllegalArgumentException("Organization not found");
+        }
         
-        return advanceRepository.findByOrganization(organization)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return advanceRepository.findAdvanceDTOsByOrganizationId(organizationId, null);
     }
     
     @Transactional(readOnly = true)
     public List<AdvanceDTO> getAdvancesByOrganizationAndStatus(UUID organizationId, String status) {
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+        if (!organizationService.organizationExists(organizationId)) {
+            throw new IllegalArgumentException("Organization not found");
+        }
         
-        return advanceRepository.findByOrganizationAndStatus(organization, status)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return advanceRepository.findAdvanceDTOsByOrganizationId(organizationId, status);
+    }
+    
+    // status is optional; without it every advance of the organization is paged
+    @Transactional(readOnly = true)
+    public CursorPage<AdvanceDTO> getAdvancePageByOrganization(UUID organizationId, String status, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<AdvanceDTO> rows = after == null
+                ? advanceRepository.findFirstAdvancesPageByOrganizationId(organizationId, status, Limit.of(pageSize + 1))
+                : advanceRepository.findAdvancesPageByOrganizationIdAfter(
+                        organizationId, status, after.sortKey(), after.id(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Function.identity(),
+                advance -> new PageCursor(advance.getRequestDate(), advance.getId()));
     }
     
     @Transactional(readOnly = true)
     public List<AdvanceDTO> getAdvancesByEmployeeAndOrganization(UUID employeeId, UUID organizationId) {
-        Employee employee = employeeRepository.findByIdAndOrganizationId(employeeId, organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Employee not found"));
+        if (!employeeRepository.existsByIdAndOrganizationId(employeeId, organizationId)) {
+            throw new IllegalArgumentException("Employee not found");
+        }
         
-        return advanceRepository.findByEmployee(employee)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return advanceRepository.findAdvanceDTOsByEmployeeId(employeeId, null);
     }
     
     @Transactional(readOnly = true)
     public List<AdvanceDTO> getAdvancesByEmployeeAndStatusAndOrganization(UUID employeeId, String status, UUID organizationId) {
-        Employee employee = employeeRepository.findByIdAndOrganizationId(employeeId, organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Employee not found"));
+        if (!employeeRepository.existsByIdAndOrganizationId(employeeId, organizationId)) {
+            throw new IllegalArgumentException("Employee not found");
+        }
         
-        return advanceRepository.findByEmployeeAndStatus(employee, status)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return advanceRepository.findAdvanceDTOsByEmployeeId(employeeId, status);
     }
     
     @Transactional(readOnly = true)
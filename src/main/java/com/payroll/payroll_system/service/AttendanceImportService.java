@@ -0,0 +1,382 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.dto.AttendanceImportResultDTO;
+import com.payroll.payroll_system.dto.AttendanceImportResultDTO.RowError;
+import com.payroll.payroll_system.entity.Attendance;
+import com.payroll.payroll_system.repository.AttendanceRepository;
+import com.payroll.payroll_system.repository.EmployeeRepository;
+import com.payroll.payroll_system.util.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+// Imports the daily punch files exported by the badge system. The file is read line by line and
+// attendance is written in JDBC batches, so memory grows with the number of employees, never with the
+// number of rows. Expected columns (header required, any order): identifier (document id or phone),
+// timestamp (ISO local date-time) and type (IN or OUT), with punches in chronological order.
+// Importing is idempotent: a shift is identified by employee and check-in, shifts already stored are
+// skipped and only the shifts actually written add to the worked minutes ledger. Each chunk commits with
+// its ledger minutes, so a file that fails halfway can simply be imported again. A check-out whose check-in
+// is not in the file (an earlier file, or a terminal tap) closes the employee's stored open shift.
+@Service
+public class AttendanceImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceImportService.class);
+
+    // Multi-row insert built per chunk; RETURNING tells which rows were new, which the update counts of
+    // a rewritten batch do not
+    private static final String INSERT_ATTENDANCE_SQL = "INSERT INTO attendance (id, employee_id, check_in, check_out) VALUES ";
+    private static final String ATTENDANCE_ROW = "(?::uuid, ?::uuid, ?::timestamp, ?::timestamp)";
+    private static final String SKIP_EXISTING_SQL =
+            " ON CONFLICT (employee_id, check_in) DO NOTHING RETURNING id, employee_id, check_in, check_out";
+
+    // check_in is the partition key, so the update touches a single partition
+    private static final String CLOSE_SHIFT_SQL =
+            "UPDATE attendance SET check_out = ? WHERE id = ? AND check_in = ? AND check_out IS NULL";
+
+    // Four parameters a row, PostgreSQL accepts at most 32767 per statement
+    private static final int MAX_ROWS_PER_INSERT = 8000;
+
+    // Same upsert as AttendanceDailySummaryRepository.addWorkedMinutes, batched
+    private static final String ADD_WORKED_MINUTES_SQL =
+            "INSERT INTO attendance_daily_summaries (id, employee_id, work_date, worked_minutes, updated_at) " +
+            "VALUES (gen_random_uuid(), ?, ?, ?, now()) " +
+            "ON CONFLICT (employee_id, work_date) DO UPDATE SET " +
+            "worked_minutes = attendance_daily_summaries.worked_minutes + EXCLUDED.worked_minutes, updated_at = now()";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OpenShiftIndex openShiftIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.attendance.import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.attendance.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    record ImportedAttendance(UUID id, UUID employeeId, LocalDateTime checkIn, LocalDateTime checkOut) {
+    }
+
+    record WorkDay(UUID employeeId, LocalDate date) {
+    }
+
+    // A stored open shift closed by a check-out of the file
+    record StoredShiftClose(UUID attendanceId, UUID employeeId, LocalDateTime checkIn, LocalDateTime checkOut) {
+    }
+
+    // State of one import: the pending chunk and the totals of the chunks already committed
+    private class ImportRun {
+        final AttendanceImportResultDTO result = new AttendanceImportResultDTO();
+        final List<ImportedAttendance> batch = new ArrayList<>(batchSize);
+        final List<StoredShiftClose> closes = new ArrayList<>();
+        // Stored shifts this file closes, so a second check-out cannot close the same one again
+        final Set<UUID> closing = new HashSet<>();
+        // Shifts still open at the end of the file, registered as open shifts once written
+        final Set<UUID> openAtEnd = new HashSet<>();
+
+        void add(ImportedAttendance attendance) {
+            batch.add(attendance);
+            if (batch.size() >= batchSize) {
+                write();
+            }
+        }
+
+        void close(StoredShiftClose shift) {
+            closes.add(shift);
+            closing.add(shift.attendanceId());
+            if (batch.size() + closes.size() >= batchSize) {
+                write();
+            }
+        }
+
+        // One transaction per chunk: the rows, the shifts it closes and the worked minutes they add
+        void write() {
+            if (batch.isEmpty() && closes.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> writeChunk());
+            batch.clear();
+            closes.clear();
+        }
+
+        private void writeChunk() {
+            Map<WorkDay, Long> workedMinutes = new HashMap<>();
+            if (!closes.isEmpty()) {
+                // A shift closed meanwhile (by a terminal check-out or the auto-close) is left as it is
+                for (StoredShiftClose shift : closeOpenShifts(closes)) {
+                    workedMinutes.merge(new WorkDay(shift.employeeId(), shift.checkIn().toLocalDate()),
+                            Duration.between(shift.checkIn(), shift.checkOut()).toMinutes(), Long::sum);
+                    openShiftIndex.closedAfterCommit(shift.employeeId(), shift.attendanceId());
+                    result.setStoredShiftsClosed(result.getStoredShiftsClosed() + 1);
+                }
+            }
+            List<ImportedAttendance> inserted = batch.isEmpty() ? List.of() : insertNew(batch);
+            for (ImportedAttendance attendance : inserted) {
+                if (attendance.checkOut() != null) {
+                    workedMinutes.merge(new WorkDay(attendance.employeeId(), attendance.checkIn().toLocalDate()),
+                            Duration.between(attendance.checkIn(), attendance.checkOut()).toMinutes(), Long::sum);
+                } else if (openAtEnd.contains(attendance.id())) {
+                    openShiftIndex.openedAfterCommit(attendance.employeeId(), attendance.id(), attendance.checkIn());
+                }
+            }
+            result.setAttendanceCreated(result.getAttendanceCreated() + inserted.size());
+            result.setAlreadyImported(result.getAlreadyImported() + batch.size() - inserted.size());
+            writeWorkedMinutes(workedMinutes);
+        }
+    }
+
+    // Rows that fail are reported and skipped; the rest of the file is written chunk by chunk
+    public AttendanceImportResultDTO importCsv(UUID organizationId, InputStream input) throws IOException {
+        Map<String, UUID> employeesByDocumentId = new HashMap<>();
+        Map<String, UUID> employeesByPhone = new HashMap<>();
+        for (Object[] row : employeeRepository.findIdentifiersByOrganizationId(organizationId)) {
+            if (row[1] != null) {
+                employeesByDocumentId.put(((String) row[1]).trim(), (UUID) row[0]);
+            }
+            if (row[2] != null) {
+                employeesByPhone.put(((String) row[2]).trim(), (UUID) row[0]);
+            }
+        }
+
+        ImportRun run = new ImportRun();
+        AttendanceImportResultDTO result = run.result;
+        Map<UUID, LocalDateTime> openCheckIns = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            List<String> columns = split(header).stream().map(column -> column.toLowerCase()).toList();
+            int identifierColumn = column(columns, "identifier");
+            int timestampColumn = column(columns, "timestamp");
+            int typeColumn = column(columns, "type");
+
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setRowsRead(result.getRowsRead() + 1);
+                try {
+                    List<String> fields = split(line);
+                    String identifier = field(fields, identifierColumn);
+                    UUID employeeId = employeesByDocumentId.getOrDefault(identifier, employeesByPhone.get(identifier));
+                    if (employeeId == null) {
+                        throw new IllegalArgumentException("Unknown employee " + identifier);
+                    }
+                    LocalDateTime timestamp = LocalDateTime.parse(field(fields, timestampColumn));
+
+                    switch (field(fields, typeColumn).toUpperCase()) {
+                        case "IN" -> {
+                            LocalDateTime previous = openCheckIns.put(employeeId, timestamp);
+                            if (previous != null) {
+                                // A forgotten check-out: keep the earlier check-in without one
+                                run.add(new ImportedAttendance(UuidV7.next(), employeeId, previous, null));
+                                result.setUnpairedCheckIns(result.getUnpairedCheckIns() + 1);
+                            }
+                        }
+                        case "OUT" -> {
+                            LocalDateTime checkIn = openCheckIns.get(employeeId);
+                            if (checkIn == null) {
+                                closeStoredShift(run, employeeId, organizationId, timestamp);
+                            } else if (timestamp.isBefore(checkIn)) {
+                                throw new IllegalArgumentException("Check-out before its check-in at " + checkIn);
+                            } else {
+                                openCheckIns.remove(employeeId);
+                                run.add(new ImportedAttendance(UuidV7.next(), employeeId, checkIn, timestamp));
+                            }
+                        }
+                        default -> throw new IllegalArgumentException("Unknown punch type, expected IN or OUT");
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    result.setErrorCount(result.getErrorCount() + 1);
+                    if (result.getErrors().size() < maxReportedErrors) {
+                        result.getErrors().add(new RowError(lineNumber, e.getMessage()));
+                    }
+                }
+            }
+        }
+
+        // Still open at the end of the file: these are the employees' current open shifts
+        for (Map.Entry<UUID, LocalDateTime> open : openCheckIns.entrySet()) {
+            UUID id = UuidV7.next();
+            run.openAtEnd.add(id);
+            run.add(new ImportedAttendance(id, open.getKey(), open.getValue(), null));
+            result.setUnpairedCheckIns(result.getUnpairedCheckIns() + 1);
+        }
+        run.write();
+
+        logger.info("Imported attendance for organization {}: {} rows, {} records, {} stored shifts closed, " +
+                        "{} already imported, {} errors", organizationId, result.getRowsRead(),
+                result.getAttendanceCreated(), result.getStoredShiftsClosed(), result.getAlreadyImported(),
+                result.getErrorCount());
+        return result;
+    }
+
+    // The check-in came before this file: close the employee's open shift, found the way
+    // AttendanceService.recordCheckOutByEmployee finds it. On a re-import the shift is already closed
+    // with this check-out and the row counts as already imported.
+    private void closeStoredShift(ImportRun run, UUID employeeId, UUID organizationId, LocalDateTime checkOut) {
+        Optional<Attendance> open = findOpenShift(employeeId, organizationId)
+                .filter(attendance -> !run.closing.contains(attendance.getId()));
+        if (open.isPresent() && !checkOut.isBefore(open.get().getCheckIn())) {
+            run.close(new StoredShiftClose(open.get().getId(), employeeId, open.get().getCheckIn(), checkOut));
+        } else if (attendanceRepository.existsByEmployeeIdAndCheckOut(employeeId, checkOut)) {
+            run.result.setAlreadyImported(run.result.getAlreadyImported() + 1);
+        } else if (open.isPresent()) {
+            throw new IllegalArgumentException("Check-out before its check-in at " + open.get().getCheckIn());
+        } else {
+            throw new IllegalArgumentException("Check-out without a check-in");
+        }
+    }
+
+    // The open shift index answers most lookups; a miss (or a stale entry) falls back to the database
+    private Optional<Attendance> findOpenShift(UUID employeeId, UUID organizationId) {
+        OpenShiftIndex.OpenShift shift = openShiftIndex.get(employeeId);
+        if (shift != null) {
+            Optional<Attendance> indexed = attendanceRepository.findById(shift.attendanceId())
+                    .filter(attendance -> attendance.getCheckOut() == null);
+            if (indexed.isPresent()) {
+                return indexed;
+            }
+            openShiftIndex.closed(employeeId, shift.attendanceId());
+        }
+        return attendanceRepository.findOpenShiftByEmployeeId(employeeId, organizationId, Limit.of(1)).stream()
+                .findFirst();
+    }
+
+    // Returns the shifts actually closed; the check_out IS NULL guard skips those closed meanwhile
+    List<StoredShiftClose> closeOpenShifts(List<StoredShiftClose> shifts) {
+        int[][] counts = jdbcTemplate.batchUpdate(CLOSE_SHIFT_SQL, shifts, shifts.size(), (ps, shift) -> {
+            ps.setObject(1, shift.checkOut());
+            ps.setObject(2, shift.attendanceId());
+            ps.setObject(3, shift.checkIn());
+        });
+        List<StoredShiftClose> closed = new ArrayList<>(shifts.size());
+        for (int i = 0; i < shifts.size(); i++) {
+            if (counts[0][i] > 0) {
+                closed.add(shifts.get(i));
+            }
+        }
+        return closed;
+    }
+
+    // Writes the batch and returns the rows that were new; shifts already stored are left as they are
+    List<ImportedAttendance> insertNew(List<ImportedAttendance> batch) {
+        List<ImportedAttendance> inserted = new ArrayList<>(batch.size());
+        for (int from = 0; from < batch.size(); from += MAX_ROWS_PER_INSERT) {
+            List<ImportedAttendance> chunk = batch.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, batch.size()));
+            String sql = INSERT_ATTENDANCE_SQL + String.join(", ", Collections.nCopies(chunk.size(), ATTENDANCE_ROW))
+                    + SKIP_EXISTING_SQL;
+            inserted.addAll(jdbcTemplate.query(sql, ps -> {
+                int index = 1;
+                for (ImportedAttendance attendance : chunk) {
+                    ps.setObject(index++, attendance.id());
+                    ps.setObject(index++, attendance.employeeId());
+                    ps.setObject(index++, attendance.checkIn());
+                    ps.setObject(index++, attendance.checkOut(), Types.TIMESTAMP);
+                }
+            }, (rs, rowNum) -> new ImportedAttendance(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("employee_id", UUID.class),
+                    rs.getObject("check_in", LocalDateTime.class),
+                    rs.getObject("check_out", LocalDateTime.class))));
+        }
+        return inserted;
+    }
+
+    private void writeWorkedMinutes(Map<WorkDay, Long> workedMinutes) {
+        if (workedMinutes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_WORKED_MINUTES_SQL, new ArrayList<>(workedMinutes.entrySet()), batchSize,
+                (ps, entry) -> {
+                    ps.setObject(1, entry.getKey().employeeId());
+                    ps.setObject(2, entry.getKey().date());
+                    ps.setLong(3, entry.getValue());
+                });
+    }
+
+    private int column(List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Missing column " + name);
+        }
+        return index;
+    }
+
+    private String field(List<String> fields, int index) {
+        if (index >= fields.size() || fields.get(index).isEmpty()) {
+            throw new IllegalArgumentException("Missing value in column " + (index + 1));
+        }
+        return fields.get(index);
+    }
+
+    // Comma separated values, optionally double-quoted with "" as an escaped quote
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+}
@@ -1,15 +1,27 @@
 package com.payroll.payroll_system.service;
 import com.payroll.payroll_system.dto.AttendanceDTO;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.entity.Attendance;
+import com.payroll.payroll_system.repository.AttendanceDailySummaryRepository;
 import com.payroll.payroll_system.repository.AttendanceRepository;
-import com.payroll.payroll_system.repository.EmployeeRepository;
+import com.payroll.payroll_system.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -17,10 +29,17 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class AttendanceService {
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
+
     @Autowired
     private AttendanceRepository attendanceRepository;
     @Autowired
-    private EmployeeRepository employeeRepository;
+    private AttendanceDailySummaryRepository dailySummaryRepository;
+    @Autowired
+    private OpenShiftIndex openShiftIndex;
+
+    @Value("${app.attendance.auto-close.max-open-shift:16h}")
+    private Duration maxOpenShift;
 
     @Transactional(readOnly = true)
     public List<AttendanceDTO> getAttendanceByEmployeeId(UUID employeeId) {
@@ -29,26 +48,118 @@ public class AttendanceService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<AttendanceDTO> getAttendancePageByOrganization(UUID organizationId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Attendance> rows = after == null
+                ? attendanceRepository.findFirstAttendancePageByOrganizationId(organizationId, Limit.of(pageSize + 1))
+                : attendanceRepository.findAttendancePageByOrganizationIdAfter(
+                        organizationId, after.sortKey(), after.id(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, this::convertToDTO,
+                attendance -> new PageCursor(attendance.getCheckIn(), attendance.getId()));
+    }
+
+    // Worked minutes for every employee of the organization with completed shifts in the period,
+    // read from the daily ledger; employees without attendance are absent from the map
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getWorkedMinutesByOrganization(UUID organizationId, LocalDate startDate, LocalDate endDate) {
+        return toMinutesMap(dailySummaryRepository.sumWorkedMinutesByOrganization(organizationId, startDate, endDate));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getWorkedMinutesForEmployees(Collection<UUID> employeeIds, LocalDate startDate, LocalDate endDate) {
+        if (employeeIds.isEmpty()) {
+            return Map.of();
+        }
+        return toMinutesMap(dailySummaryRepository.sumWorkedMinutesForEmployees(employeeIds, startDate, endDate));
+    }
+
+    @Transactional(readOnly = true)
+    public long getWorkedMinutes(UUID employeeId, LocalDate startDate, LocalDate endDate) {
+        return dailySummaryRepository.sumWorkedMinutes(employeeId, startDate, endDate);
+    }
+
+    // Backfills the daily ledger from raw attendance and repairs any drift for the period
     @Transactional
-    public Optional<AttendanceDTO> recordCheckIn(UUID employeeId) {
-        return employeeRepository.findById(employeeId)
-                .map(employee -> {
-                    Attendance attendance = new Attendance();
-                    attendance.setEmployee(employee);
-                    attendance.setCheckIn(LocalDateTime.now());
-                    return convertToDTO(attendanceRepository.save(attendance));
-                });
+    public int rebuildWorkedMinutesLedger(UUID organizationId, LocalDate startDate, LocalDate endDate) {
+        int removed = dailySummaryRepository.deleteByOrganizationAndPeriod(organizationId, startDate, endDate);
+        int rebuilt = dailySummaryRepository.rebuildFromAttendance(organizationId, startDate, endDate);
+        logger.info("Rebuilt worked minutes ledger for organization {} ({} to {}): {} rows removed, {} rows written",
+                organizationId, startDate, endDate, removed, rebuilt);
+        return rebuilt;
     }
 
     @Transactional
     public Optional<AttendanceDTO> recordCheckOut(UUID attendanceId) {
-        return attendanceRepository.findById(attendanceId)
+        return attendanceRepository.findById(attendanceId).map(this::checkOut);
+    }
+
+    // Closes the employee's open shift. The open shift index answers most check-outs; it only knows the
+    // shifts this instance has seen, so a miss (or a stale entry) falls back to the database. A null
+    // organization leaves the lookup unscoped, as for check-ins from the terminal channel.
+    @Transactional
+    public Optional<AttendanceDTO> recordCheckOutByEmployee(UUID employeeId, UUID organizationId) {
+        OpenShiftIndex.OpenShift shift = openShiftIndex.get(employeeId);
+        if (shift != null) {
+            Optional<Attendance> indexed = attendanceRepository.findById(shift.attendanceId())
+                    .filter(attendance -> attendance.getCheckOut() == null);
+            if (indexed.isPresent()) {
+                return indexed.filter(attendance -> belongsTo(attendance, organizationId)).map(this::checkOut);
+            }
+            // Closed through another path, or the check-in was never written
+            openShiftIndex.closed(employeeId, shift.attendanceId());
+        }
+        return attendanceRepository.findOpenShiftByEmployeeId(employeeId, organizationId, Limit.of(1)).stream()
+                .findFirst()
                 .map(attendance -> {
-                    attendance.setCheckOut(LocalDateTime.now());
-                    return convertToDTO(attendanceRepository.save(attendance));
+                    openShiftIndex.opened(employeeId, attendance.getId(), attendance.getCheckIn());
+                    return checkOut(attendance);
                 });
     }
 
+    // Closes shifts left open longer than the limit, in one statement; they get no worked time,
+    // so the daily ledger is unchanged
+    @Scheduled(fixedDelayString = "${app.attendance.auto-close.interval-ms:900000}")
+    @Transactional
+    public void closeForgottenShifts() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxOpenShift);
+        int closed = attendanceRepository.closeShiftsOpenedBefore(cutoff);
+        if (closed > 0) {
+            logger.info("Auto-closed {} shifts checked in before {}", closed, cutoff);
+            openShiftIndex.closedOpenedBeforeAfterCommit(cutoff);
+        }
+    }
+
+    private AttendanceDTO checkOut(Attendance attendance) {
+        // A repeated check-out replaces the earlier duration, so only the difference is applied
+        long previousMinutes = attendance.getDurationInMinutes();
+        attendance.setCheckOut(LocalDateTime.now());
+        Attendance saved = attendanceRepository.save(attendance);
+
+        long delta = saved.getDurationInMinutes() - previousMinutes;
+        if (delta != 0) {
+            dailySummaryRepository.addWorkedMinutes(
+                    saved.getEmployee().getId(), saved.getCheckIn().toLocalDate(), delta);
+        }
+        openShiftIndex.closedAfterCommit(saved.getEmployee().getId(), saved.getId());
+        return convertToDTO(saved);
+    }
+
+    private boolean belongsTo(Attendance attendance, UUID organizationId) {
+        return organizationId == null || (attendance.getEmployee().getOrganization() != null
+                && organizationId.equals(attendance.getEmployee().getOrganization().getId()));
+    }
+
+    // Boxed on purpose: one entry per employee, built from rows the query already returns boxed
+    private Map<UUID, Long> toMinutesMap(List<Object[]> rows) {
+        Map<UUID, Long> minutes = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            minutes.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+        return minutes;
+    }
+
     private AttendanceDTO convertToDTO(Attendance attendance) {
          AttendanceDTO attendanceDTO = new AttendanceDTO();
         attendanceDTO.setId(attendance.getId());
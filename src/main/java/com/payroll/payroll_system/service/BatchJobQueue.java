@@ -0,0 +1,186 @@
+package com.payroll.payroll_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payroll.payroll_system.util.UuidV7;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// Postgres-backed work queue over batch_job_items. Every statement is safe to run concurrently
+// from several application instances sharing the database.
+@Component
+public class BatchJobQueue {
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO batch_job_items (id, batch_job_id, seq, payload, status, attempts, created_at) " +
+            "VALUES (?, ?, ?, ?, 'PENDING', 0, ?)";
+
+    private static final String INSERT_REJECTED_ITEM_SQL =
+            "INSERT INTO batch_job_items (id, batch_job_id, seq, payload, status, attempts, error, created_at, completed_at) " +
+            "VALUES (?, ?, ?, ?, 'FAILED', 0, ?, now(), now())";
+
+    // Rows locked by another worker are skipped rather than waited on
+    private static final String CLAIM_SQL =
+            "WITH next AS (" +
+            "  SELECT id FROM batch_job_items WHERE status = 'PENDING' " +
+            "  ORDER BY created_at, seq LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "UPDATE batch_job_items i SET status = 'PROCESSING', claimed_by = ?, claimed_at = now(), " +
+            "attempts = i.attempts + 1 " +
+            "FROM next, batch_jobs j WHERE i.id = next.id AND j.id = i.batch_job_id " +
+            "RETURNING i.id, i.batch_job_id, i.seq, i.payload, j.job_type, j.organization_id";
+
+    // Fenced on claimed_by, so a worker whose lease expired cannot overwrite the new owner's result
+    private static final String CHECKPOINT_SQL =
+            "UPDATE batch_job_items SET status = ?, error = ?, completed_at = now() " +
+            "WHERE id = ? AND status = 'PROCESSING' AND claimed_by = ?";
+
+    private static final String ABANDON_EXPIRED_SQL =
+            "UPDATE batch_job_items SET status = 'FAILED', error = 'Abandoned after ' || attempts || ' attempts', " +
+            "completed_at = now() WHERE status = 'PROCESSING' AND claimed_at < ? AND attempts >= ?";
+
+    private static final String RELEASE_EXPIRED_SQL =
+            "UPDATE batch_job_items SET status = 'PENDING', claimed_by = NULL, claimed_at = NULL " +
+            "WHERE status = 'PROCESSING' AND claimed_at < ?";
+
+    // Counters are rebuilt from the items, the status guard makes completion happen exactly once
+    private static final String FINALIZE_JOB_SQL =
+            "UPDATE batch_jobs j SET status = 'COMPLETED', completed_at = now(), updated_at = now(), " +
+            "processed_requests = c.done + c.failed, successful_requests = c.done, failed_requests = c.failed " +
+            "FROM (SELECT count(*) FILTER (WHERE status = 'DONE') AS done, " +
+            "             count(*) FILTER (WHERE status = 'FAILED') AS failed, " +
+            "             count(*) FILTER (WHERE status IN ('PENDING', 'PROCESSING')) AS open " +
+            "      FROM batch_job_items WHERE batch_job_id = ?) c " +
+            "WHERE j.id = ? AND j.status = 'PROCESSING' AND c.open = 0";
+
+    private static final String FINISHED_OPEN_JOBS_SQL =
+            "SELECT j.id FROM batch_jobs j JOIN batch_job_items i ON i.batch_job_id = j.id " +
+            "WHERE j.status = 'PROCESSING' GROUP BY j.id " +
+            "HAVING count(*) FILTER (WHERE i.status IN ('PENDING', 'PROCESSING')) = 0";
+
+    private static final String DELETE_PENDING_ITEMS_SQL =
+            "DELETE FROM batch_job_items WHERE batch_job_id = ? AND status = 'PENDING'";
+
+    // Items already claimed are left to finish, the counters reflect what had completed when aborting
+    private static final String ABORT_JOB_SQL =
+            "UPDATE batch_jobs j SET status = 'FAILED', completed_at = now(), updated_at = now(), result_details = ?, " +
+            "processed_requests = c.done + c.failed, successful_requests = c.done, failed_requests = c.failed " +
+            "FROM (SELECT count(*) FILTER (WHERE status = 'DONE') AS done, " +
+            "             count(*) FILTER (WHERE status = 'FAILED') AS failed " +
+            "      FROM batch_job_items WHERE batch_job_id = ?) c " +
+            "WHERE j.id = ? AND j.status IN ('RECEIVING', 'PROCESSING')";
+
+    private static final String STALLED_UPLOADS_SQL =
+            "SELECT id FROM batch_jobs WHERE status = 'RECEIVING' AND updated_at < ?";
+
+    // Jobs submitted before the queue existed have no items and would otherwise stay PROCESSING forever
+    private static final String FAIL_ORPHANED_JOBS_SQL =
+            "UPDATE batch_jobs j SET status = 'FAILED', completed_at = now(), updated_at = now(), " +
+            "result_details = 'Error: job was interrupted before its items were queued' " +
+            "WHERE j.status = 'PROCESSING' AND j.updated_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM batch_job_items i WHERE i.batch_job_id = j.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void enqueue(UUID batchJobId, int firstSeq, List<?> requests) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            rows.add(new Object[]{UuidV7.next(), batchJobId, firstSeq + i, toJson(requests.get(i)), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows);
+    }
+
+    // Stores an item that failed validation on arrival so it is reported like any other failure
+    public void enqueueRejected(UUID batchJobId, int seq, Object request, String error) {
+        jdbcTemplate.update(INSERT_REJECTED_ITEM_SQL, UuidV7.next(), batchJobId, seq, toJson(request), error);
+    }
+
+    public List<ClaimedItem> claim(String workerId, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new ClaimedItem(
+                rs.getObject("id", UUID.class),
+                rs.getObject("batch_job_id", UUID.class),
+                rs.getInt("seq"),
+                rs.getString("payload"),
+                rs.getString("job_type"),
+                rs.getObject("organization_id", UUID.class)), limit, workerId);
+    }
+
+    // Returns false when at least one item is no longer owned by this worker
+    public boolean checkpoint(String workerId, List<ItemOutcome> outcomes) {
+        List<Object[]> rows = outcomes.stream()
+                .map(outcome -> new Object[]{outcome.done() ? "DONE" : "FAILED", outcome.error(), outcome.itemId(), workerId})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(CHECKPOINT_SQL, rows);
+        // The driver may report SUCCESS_NO_INFO (-2) for rewritten batches, only a hard 0 means lost ownership
+        return Arrays.stream(updated).noneMatch(count -> count == 0);
+    }
+
+    public int releaseExpired(LocalDateTime claimedBefore, int maxAttempts) {
+        Timestamp cutoff = Timestamp.valueOf(claimedBefore);
+        int abandoned = jdbcTemplate.update(ABANDON_EXPIRED_SQL, cutoff, maxAttempts);
+        return abandoned + jdbcTemplate.update(RELEASE_EXPIRED_SQL, cutoff);
+    }
+
+    public boolean finalizeJob(UUID batchJobId) {
+        return jdbcTemplate.update(FINALIZE_JOB_SQL, batchJobId, batchJobId) > 0;
+    }
+
+    public void abortJob(UUID batchJobId, String details) {
+        jdbcTemplate.update(DELETE_PENDING_ITEMS_SQL, batchJobId);
+        jdbcTemplate.update(ABORT_JOB_SQL, details, batchJobId, batchJobId);
+    }
+
+    public List<UUID> findStalledUploads(LocalDateTime updatedBefore) {
+        return jdbcTemplate.queryForList(STALLED_UPLOADS_SQL, UUID.class, Timestamp.valueOf(updatedBefore));
+    }
+
+    public List<UUID> findFinishedOpenJobs() {
+        return jdbcTemplate.queryForList(FINISHED_OPEN_JOBS_SQL, UUID.class);
+    }
+
+    public int failOrphanedJobs(LocalDateTime updatedBefore) {
+        return jdbcTemplate.update(FAIL_ORPHANED_JOBS_SQL, Timestamp.valueOf(updatedBefore));
+    }
+
+    public <T> T readPayload(ClaimedItem item, Class<T> type) {
+        try {
+            return objectMapper.readValue(item.payload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payload for batch item " + item.id(), e);
+        }
+    }
+
+    private String toJson(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Batch request cannot be serialized", e);
+        }
+    }
+
+    public record ClaimedItem(UUID id, UUID batchJobId, int seq, String payload, String jobType, UUID organizationId) {
+    }
+
+    public record ItemOutcome(UUID itemId, boolean done, String error) {
+
+        static ItemOutcome done(UUID itemId) {
+            return new ItemOutcome(itemId, true, null);
+        }
+
+        static ItemOutcome failed(UUID itemId, String error) {
+            return new ItemOutcome(itemId, false, error);
+        }
+    }
+}
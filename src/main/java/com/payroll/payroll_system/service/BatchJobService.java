@@ -1,27 +1,41 @@
 package com.payroll.payroll_system.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payroll.payroll_system.constant.EmployeeStatus;
 import com.payroll.payroll_system.dto.BatchJobResponseDTO;
 import com.payroll.payroll_system.dto.BatchPayrollRequestDTO;
 import com.payroll.payroll_system.dto.BatchAdvanceRequestDTO;
+import com.payroll.payroll_system.dto.OrganizationPayrollRunRequestDTO;
+import com.payroll.payroll_system.dto.PayrollRequestDTO;
 import com.payroll.payroll_system.entity.BatchJob;
 import com.payroll.payroll_system.entity.Organization;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.repository.BatchJobRepository;
+import com.payroll.payroll_system.repository.EmployeeRepository;
 import com.payroll.payroll_system.repository.OrganizationRepository;
 import com.payroll.payroll_system.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 public class BatchJobService {
@@ -29,10 +43,10 @@ public class BatchJobService {
     private static final Logger logger = LoggerFactory.getLogger(BatchJobService.class);
     
     @Autowired
-    private PayrollService payrollService;
+    private BatchJobQueue batchJobQueue;
     
     @Autowired
-    private AdvanceService advanceService;
+    private BatchProgressTracker progressTracker;
     
     @Autowired
     private UserRepository userRepository;
@@ -43,16 +57,28 @@ public class BatchJobService {
     @Autowired
     private BatchJobRepository batchJobRepository;
     
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private Validator validator;
+    
+    @Value("${app.batch.partition-size:250}")
+    private int enqueueChunkSize;
+    
     @Transactional(readOnly = true)
     public List<BatchJobResponseDTO> getBatchJobsByOrganization(UUID organizationId) {
         Organization organization = organizationRepository.findById(organizationId)
                 .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
         
         return batchJobRepository.findByOrganization(organization).stream()
-                .map(this::convertToDTO)
+                .map(this::convertToLiveDTO)
                 .toList();
     }
     
@@ -62,131 +88,207 @@ public class BatchJobService {
                 .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
         
         return batchJobRepository.findByIdAndOrganization(jobId, organization)
-                .map(this::convertToDTO);
+                .map(this::convertToLiveDTO);
     }
     
-    @Async
+    // The job and all of its items are stored in one transaction; BatchJobWorker does the processing
     @Transactional
-    public CompletableFuture<BatchJobResponseDTO> processBatchPayroll(BatchPayrollRequestDTO batchRequest, UUID organizationId) {
-        logger.info("Starting batch payroll processing for organization: {}", organizationId);
+    public BatchJobResponseDTO submitBatchPayroll(BatchPayrollRequestDTO batchRequest, UUID organizationId) {
+        logger.info("Queueing batch payroll for organization: {}", organizationId);
         
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+        BatchJob batchJob = createJob("PAYROLL", "PROCESSING", batchRequest.getRequestedBy(), organizationId,
+                batchRequest.getPayrolls().size(), batchRequest.getCallbackUrl(), batchRequest.getDescription());
+        batchJobQueue.enqueue(batchJob.getId(), 0, batchRequest.getPayrolls());
         
-        User requestedBy = userRepository.findById(batchRequest.getRequestedBy())
-                .orElseThrow(() -> new IllegalArgumentException("Requesting user not found"));
+        return convertToDTO(batchJob);
+    }
+    
+    @Transactional
+    public BatchJobResponseDTO submitBatchAdvances(BatchAdvanceRequestDTO batchRequest, UUID organizationId) {
+        logger.info("Queueing batch advances for organization: {}", organizationId);
         
-        // Create and save initial job record
-        BatchJob batchJob = new BatchJob();
-        batchJob.setJobType("PAYROLL");
-        batchJob.setStatus("PROCESSING");
-        batchJob.setSubmittedAt(LocalDateTime.now());
-        batchJob.setStartedAt(LocalDateTime.now());
-        batchJob.setTotalRequests(batchRequest.getPayrolls().size());
-        batchJob.setProcessedRequests(0);
-        batchJob.setSuccessfulRequests(0);
-        batchJob.setFailedRequests(0);
-        batchJob.setCallbackUrl(batchRequest.getCallbackUrl());
-        batchJob.setDescription(batchRequest.getDescription());
-        batchJob.setRequestedBy(requestedBy);
-        batchJob.setOrganization(organization);
+        BatchJob batchJob = createJob("ADVANCE", "PROCESSING", batchRequest.getRequestedBy(), organizationId,
+                batchRequest.getRequests().size(), batchRequest.getCallbackUrl(), batchRequest.getDescription());
+        batchJobQueue.enqueue(batchJob.getId(), 0, batchRequest.getRequests());
         
-        batchJob = batchJobRepository.save(batchJob);
+        return convertToDTO(batchJob);
+    }
+    
+    // Accepts a JSON array or NDJSON of PayrollRequestDTO of any size. Items are parsed one at a time
+    // and committed to the queue a partition at a time, so workers start while the upload continues.
+    // The job stays RECEIVING until the stream ends and cannot complete before that.
+    public BatchJobResponseDTO submitPayrollStream(InputStream body, UUID requestedById, UUID organizationId,
+                                                   String description, String callbackUrl) {
+        logger.info("Receiving streamed batch payroll for organization: {}", organizationId);
         
-        try {
-            // Process each payroll request
-            for (var payrollRequest : batchRequest.getPayrolls()) {
-                try {
-                    payrollService.generatePayroll(
-                            payrollRequest.getEmployeeId(),
-                            payrollRequest.getStartDate(),
-                            payrollRequest.getEndDate(),
-                            organizationId);
-                    
-                    batchJob.setProcessedRequests(batchJob.getProcessedRequests() + 1);
-                    batchJob.setSuccessfulRequests(batchJob.getSuccessfulRequests() + 1);
-                    batchJobRepository.save(batchJob);
-                } catch (Exception e) {
-                    logger.error("Error processing payroll for employee {}: {}", 
-                            payrollRequest.getEmployeeId(), e.getMessage());
-                    batchJob.setProcessedRequests(batchJob.getProcessedRequests() + 1);
-                    batchJob.setFailedRequests(batchJob.getFailedRequests() + 1);
-                    batchJobRepository.save(batchJob);
+        UUID batchJobId = transactionTemplate.execute(status -> createJob("PAYROLL", "RECEIVING", requestedById,
+                organizationId, 0, callbackUrl, description)).getId();
+        
+        int received = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            
+            List<PayrollRequestDTO> chunk = new ArrayList<>(enqueueChunkSize);
+            int chunkStart = 0;
+            while (token == JsonToken.START_OBJECT) {
+                PayrollRequestDTO request = objectMapper.readValue(parser, PayrollRequestDTO.class);
+                String violations = validate(request);
+                if (violations != null) {
+                    // Flushed first so every queued chunk keeps consecutive sequence numbers
+                    enqueueChunk(batchJobId, chunkStart, chunk);
+                    chunk.clear();
+                    enqueueRejected(batchJobId, received, request, violations);
+                    received++;
+                    chunkStart = received;
+                } else {
+                    chunk.add(request);
+                    received++;
+                    if (chunk.size() == enqueueChunkSize) {
+                        enqueueChunk(batchJobId, chunkStart, chunk);
+                        chunk.clear();
+                        chunkStart = received;
+                    }
                 }
+                token = parser.nextToken();
             }
             
-            batchJob.setStatus("COMPLETED");
-            batchJob.setCompletedAt(LocalDateTime.now());
-            batchJobRepository.save(batchJob);
-        } catch (Exception e) {
-            logger.error("Error in batch payroll processing: {}", e.getMessage());
-            batchJob.setStatus("FAILED");
-            batchJob.setCompletedAt(LocalDateTime.now());
-            batchJob.setResultDetails("Error: " + e.getMessage());
-            batchJobRepository.save(batchJob);
+            if (array ? token != JsonToken.END_ARRAY || parser.nextToken() != null : token != null) {
+                throw new IllegalArgumentException("Expected payroll request objects, found " + token);
+            }
+            enqueueChunk(batchJobId, chunkStart, chunk);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Streamed batch payroll {} aborted after {} items: {}", batchJobId, received, e.getMessage());
+            batchJobQueue.abortJob(batchJobId, "Error: " + e.getMessage());
+            throw new IllegalArgumentException("Invalid payroll stream after " + received + " items: " + e.getMessage(), e);
         }
         
-        return CompletableFuture.completedFuture(convertToDTO(batchJob));
+        logger.info("Streamed batch payroll {} received {} items", batchJobId, received);
+        return completeReceiving(batchJobId);
     }
     
-    @Async
-    @Transactional
-    public CompletableFuture<BatchJobResponseDTO> processBatchAdvances(BatchAdvanceRequestDTO batchRequest, UUID organizationId) {
-        logger.info("Starting batch advance processing for organization: {}", organizationId);
+    // Payroll for every ACTIVE employee of the organization, without the client listing them.
+    // Employee ids are read in keyset pages and queued a page at a time.
+    public BatchJobResponseDTO submitOrganizationPayroll(OrganizationPayrollRunRequestDTO runRequest, UUID requestedById,
+                                                         UUID organizationId) {
+        if (runRequest.getEndDate().isBefore(runRequest.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        logger.info("Queueing organization payroll run for organization: {}", organizationId);
+        
+        UUID batchJobId = transactionTemplate.execute(status -> createJob("PAYROLL", "RECEIVING", requestedById,
+                organizationId, 0, runRequest.getCallbackUrl(), runRequest.getDescription())).getId();
+        
+        int queued = 0;
+        try {
+            UUID afterId = new UUID(0L, 0L);
+            List<UUID> employeeIds;
+            do {
+                employeeIds = employeeRepository.findIdsByOrganizationIdAndStatusAfter(
+                        organizationId, EmployeeStatus.ACTIVE, afterId, Limit.of(enqueueChunkSize));
+                if (employeeIds.isEmpty()) {
+                    break;
+                }
+                List<PayrollRequestDTO> requests = employeeIds.stream()
+                        .map(employeeId -> PayrollRequestDTO.builder()
+                                .employeeId(employeeId)
+                                .startDate(runRequest.getStartDate())
+                                .endDate(runRequest.getEndDate())
+                                .build())
+                        .toList();
+                enqueueChunk(batchJobId, queued, requests);
+                queued += requests.size();
+                afterId = employeeIds.get(employeeIds.size() - 1);
+            } while (employeeIds.size() == enqueueChunkSize);
+        } catch (RuntimeException e) {
+            logger.error("Organization payroll run {} aborted after {} employees: {}", batchJobId, queued, e.getMessage());
+            batchJobQueue.abortJob(batchJobId, "Error: " + e.getMessage());
+            throw e;
+        }
         
+        logger.info("Organization payroll run {} queued {} employees", batchJobId, queued);
+        return completeReceiving(batchJobId);
+    }
+    
+    private BatchJobResponseDTO completeReceiving(UUID batchJobId) {
+        transactionTemplate.executeWithoutResult(status -> batchJobRepository.markReceived(batchJobId));
+        // Workers may already have drained every item while items were still being queued
+        if (batchJobQueue.finalizeJob(batchJobId)) {
+            progressTracker.complete(batchJobId);
+        }
+        
+        return batchJobRepository.findById(batchJobId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new IllegalArgumentException("Batch job not found"));
+    }
+    
+    private void enqueueChunk(UUID batchJobId, int firstSeq, List<PayrollRequestDTO> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batchJobQueue.enqueue(batchJobId, firstSeq, chunk);
+            batchJobRepository.incrementTotalRequests(batchJobId, chunk.size());
+        });
+    }
+    
+    private void enqueueRejected(UUID batchJobId, int seq, PayrollRequestDTO request, String violations) {
+        transactionTemplate.executeWithoutResult(status -> {
+            batchJobQueue.enqueueRejected(batchJobId, seq, request, violations);
+            batchJobRepository.incrementTotalRequests(batchJobId, 1);
+        });
+    }
+    
+    // Request bodies bypass @Valid when streamed, so items are validated one by one
+    private String validate(PayrollRequestDTO request) {
+        Set<ConstraintViolation<PayrollRequestDTO>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private BatchJob createJob(String jobType, String status, UUID requestedById, UUID organizationId, int totalRequests,
+                               String callbackUrl, String description) {
         Organization organization = organizationRepository.findById(organizationId)
                 .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
         
-        User requestedBy = userRepository.findById(batchRequest.getRequestedBy())
+        User requestedBy = userRepository.findById(requestedById)
                 .orElseThrow(() -> new IllegalArgumentException("Requesting user not found"));
         
-        // Create and save initial job record
         BatchJob batchJob = new BatchJob();
-        batchJob.setJobType("ADVANCE");
-        batchJob.setStatus("PROCESSING");
+        batchJob.setJobType(jobType);
+        batchJob.setStatus(status);
         batchJob.setSubmittedAt(LocalDateTime.now());
         batchJob.setStartedAt(LocalDateTime.now());
-        batchJob.setTotalRequests(batchRequest.getRequests().size());
+        batchJob.setTotalRequests(totalRequests);
         batchJob.setProcessedRequests(0);
         batchJob.setSuccessfulRequests(0);
         batchJob.setFailedRequests(0);
-        batchJob.setCallbackUrl(batchRequest.getCallbackUrl());
-        batchJob.setDescription(batchRequest.getDescription());
+        batchJob.setCallbackUrl(callbackUrl);
+        batchJob.setDescription(description);
         batchJob.setRequestedBy(requestedBy);
         batchJob.setOrganization(organization);
         
-        batchJob = batchJobRepository.save(batchJob);
-        
-        try {
-            // Process each advance request
-            for (var advanceRequest : batchRequest.getRequests()) {
-                try {
-                    advanceService.requestAdvance(advanceRequest, organizationId);
-                    
-                    batchJob.setProcessedRequests(batchJob.getProcessedRequests() + 1);
-                    batchJob.setSuccessfulRequests(batchJob.getSuccessfulRequests() + 1);
-                    batchJobRepository.save(batchJob);
-                } catch (Exception e) {
-                    logger.error("Error processing advance for employee {}: {}", 
-                            advanceRequest.getEmployeeId(), e.getMessage());
-                    batchJob.setProcessedRequests(batchJob.getProcessedRequests() + 1);
-                    batchJob.setFailedRequests(batchJob.getFailedRequests() + 1);
-                    batchJobRepository.save(batchJob);
-                }
-            }
-            
-            batchJob.setStatus("COMPLETED");
-            batchJob.setCompletedAt(LocalDateTime.now());
-            batchJobRepository.save(batchJob);
-        } catch (Exception e) {
-            logger.error("Error in batch advance processing: {}", e.getMessage());
-            batchJob.setStatus("FAILED");
-            batchJob.setCompletedAt(LocalDateTime.now());
-            batchJob.setResultDetails("Error: " + e.getMessage());
-            batchJobRepository.save(batchJob);
-        }
-        
-        return CompletableFuture.completedFuture(convertToDTO(batchJob));
+        // Flushed right away, the queue items reference the job row through a foreign key
+        return batchJobRepository.saveAndFlush(batchJob);
+    }
+    
+    // Counters recorded on this instance but not flushed yet are added on top of the stored ones
+    private BatchJobResponseDTO convertToLiveDTO(BatchJob batchJob) {
+        BatchJobResponseDTO dto = convertToDTO(batchJob);
+        progressTracker.getLiveProgress(batchJob.getId()).ifPresent(progress -> {
+            dto.setProcessedRequests(dto.getProcessedRequests() + progress.getPendingSuccessful() + progress.getPendingFailed());
+            dto.setSuccessfulRequests(dto.getSuccessfulRequests() + progress.getPendingSuccessful());
+            dto.setFailedRequests(dto.getFailedRequests() + progress.getPendingFailed());
+        });
+        return dto;
     }
     
     private BatchJobResponseDTO convertToDTO(BatchJob batchJob) {
@@ -0,0 +1,256 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.dto.AdvanceRequestDTO;
+import com.payroll.payroll_system.dto.PayrollDTO;
+import com.payroll.payroll_system.dto.PayrollRequestDTO;
+import com.payroll.payroll_system.service.BatchJobQueue.ClaimedItem;
+import com.payroll.payroll_system.service.BatchJobQueue.ItemOutcome;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+// Drains batch_job_items on every application instance. Each claimed partition runs on the batch
+// partition pool and is checkpointed in the same transaction as the work it represents, so a
+// restart only repeats partitions that never committed.
+@Component
+public class BatchJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobWorker.class);
+
+    @Autowired
+    private BatchJobQueue batchJobQueue;
+
+    @Autowired
+    private BulkPayrollService bulkPayrollService;
+
+    @Autowired
+    private AdvanceService advanceService;
+
+    @Autowired
+    private BatchProgressTracker progressTracker;
+
+    @Autowired
+    @Qualifier("batchPartitionExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${app.batch.partition-size:250}")
+    private int partitionSize;
+
+    @Value("${app.batch.pool-size:4}")
+    private int poolSize;
+
+    // A claim older than this is considered abandoned by a crashed instance and handed out again
+    @Value("${app.batch.queue.lease-timeout-ms:600000}")
+    private long leaseTimeoutMillis;
+
+    @Value("${app.batch.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName()
+            + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final TransactionTemplate transactionTemplate;
+
+    private Semaphore freeSlots;
+
+    public BatchJobWorker(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() {
+        freeSlots = new Semaphore(poolSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        try {
+            recover();
+        } catch (Exception e) {
+            logger.error("Batch job recovery on startup failed: {}", e.getMessage());
+        }
+    }
+
+    // Hands expired claims back to the queue and completes jobs whose last partition committed
+    // but whose instance died before finalizing
+    @Scheduled(fixedDelayString = "${app.batch.queue.recovery-interval-ms:60000}")
+    public void recover() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(leaseTimeoutMillis));
+        int released = batchJobQueue.releaseExpired(cutoff, maxAttempts);
+        int orphaned = batchJobQueue.failOrphanedJobs(cutoff);
+        // A streamed upload whose connection or instance died never leaves RECEIVING on its own
+        for (UUID batchJobId : batchJobQueue.findStalledUploads(cutoff)) {
+            batchJobQueue.abortJob(batchJobId, "Error: upload was interrupted");
+            progressTracker.complete(batchJobId);
+            orphaned++;
+        }
+        for (UUID batchJobId : batchJobQueue.findFinishedOpenJobs()) {
+            finalizeJob(batchJobId);
+        }
+        if (released > 0 || orphaned > 0) {
+            logger.info("Batch queue recovery: {} expired items released, {} orphaned or stalled jobs failed", released, orphaned);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.batch.queue.poll-interval-ms:1000}")
+    public void poll() {
+        while (freeSlots.tryAcquire()) {
+            List<ClaimedItem> items;
+            try {
+                items = batchJobQueue.claim(workerId, partitionSize);
+            } catch (Exception e) {
+                freeSlots.release();
+                logger.error("Failed to claim batch items: {}", e.getMessage());
+                return;
+            }
+            if (items.isEmpty()) {
+                freeSlots.release();
+                return;
+            }
+
+            try {
+                taskExecutor.execute(() -> {
+                    try {
+                        processClaimed(items);
+                    } finally {
+                        freeSlots.release();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                // The claimed items are picked up again once their lease expires
+                freeSlots.release();
+                logger.error("Batch partition rejected by executor: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void processClaimed(List<ClaimedItem> items) {
+        // A claim follows queue order and may span the tail of one job and the head of the next
+        Map<UUID, List<ClaimedItem>> itemsByJob = items.stream()
+                .collect(Collectors.groupingBy(ClaimedItem::batchJobId, LinkedHashMap::new, Collectors.toList()));
+
+        itemsByJob.forEach((batchJobId, jobItems) -> {
+            ClaimedItem first = jobItems.get(0);
+            switch (first.jobType()) {
+                case "PAYROLL" -> processPayrolls(batchJobId, first.organizationId(), jobItems);
+                case "ADVANCE" -> processAdvances(batchJobId, first.organizationId(), jobItems);
+                default -> failAll(batchJobId, jobItems, "Unsupported job type: " + first.jobType());
+            }
+            finalizeJob(batchJobId);
+        });
+    }
+
+    private void processPayrolls(UUID batchJobId, UUID organizationId, List<ClaimedItem> items) {
+        List<ItemOutcome> outcomes;
+        try {
+            // The whole partition is generated set-based by the bulk engine and checkpointed atomically
+            outcomes = transactionTemplate.execute(status -> {
+                List<PayrollRequestDTO> requests = items.stream()
+                        .map(item -> batchJobQueue.readPayload(item, PayrollRequestDTO.class))
+                        .toList();
+                Set<UUID> generated = bulkPayrollService.generatePayrolls(requests, organizationId).stream()
+                        .map(PayrollDTO::getEmployeeId)
+                        .collect(Collectors.toSet());
+
+                List<ItemOutcome> result = new ArrayList<>(items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    result.add(generated.contains(requests.get(i).getEmployeeId())
+                            ? ItemOutcome.done(items.get(i).id())
+                            : ItemOutcome.failed(items.get(i).id(), "Employee not found"));
+                }
+                checkpointOrRollback(result);
+                return result;
+            });
+        } catch (ClaimLostException e) {
+            logger.warn("Lost claim on a partition of batch job {}, leaving it to the new owner", batchJobId);
+            return;
+        } catch (Exception e) {
+            logger.error("Partition of {} items failed for batch job {}: {}", items.size(), batchJobId, e.getMessage());
+            failAll(batchJobId, items, "Error: " + e.getMessage());
+            return;
+        }
+        recordProgress(batchJobId, outcomes);
+    }
+
+    private void processAdvances(UUID batchJobId, UUID organizationId, List<ClaimedItem> items) {
+        List<ItemOutcome> outcomes = new ArrayList<>(items.size());
+        for (ClaimedItem item : items) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    advanceService.requestAdvance(batchJobQueue.readPayload(item, AdvanceRequestDTO.class), organizationId);
+                    checkpointOrRollback(List.of(ItemOutcome.done(item.id())));
+                });
+                outcomes.add(ItemOutcome.done(item.id()));
+            } catch (ClaimLostException e) {
+                logger.warn("Lost claim on item {} of batch job {}", item.id(), batchJobId);
+            } catch (Exception e) {
+                logger.error("Error processing advance item {} of batch job {}: {}", item.seq(), batchJobId, e.getMessage());
+                ItemOutcome failed = ItemOutcome.failed(item.id(), "Error: " + e.getMessage());
+                if (batchJobQueue.checkpoint(workerId, List.of(failed))) {
+                    outcomes.add(failed);
+                }
+            }
+        }
+        recordProgress(batchJobId, outcomes);
+    }
+
+    private void failAll(UUID batchJobId, List<ClaimedItem> items, String error) {
+        List<ItemOutcome> outcomes = items.stream()
+                .map(item -> ItemOutcome.failed(item.id(), error))
+                .toList();
+        if (batchJobQueue.checkpoint(workerId, outcomes)) {
+            recordProgress(batchJobId, outcomes);
+        }
+    }
+
+    private void checkpointOrRollback(List<ItemOutcome> outcomes) {
+        if (!batchJobQueue.checkpoint(workerId, outcomes)) {
+            throw new ClaimLostException();
+        }
+    }
+
+    private void recordProgress(UUID batchJobId, List<ItemOutcome> outcomes) {
+        int successful = (int) outcomes.stream().filter(ItemOutcome::done).count();
+        progressTracker.record(batchJobId, successful, outcomes.size() - successful);
+    }
+
+    private void finalizeJob(UUID batchJobId) {
+        if (batchJobQueue.finalizeJob(batchJobId)) {
+            progressTracker.complete(batchJobId);
+            logger.info("Batch job {} completed", batchJobId);
+        }
+    }
+
+    // Thrown inside the partition transaction so work done under an expired claim is rolled back
+    private static class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super("Batch item claim lost");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.repository.BatchJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps batch job counters in memory while a job runs and writes them to batch_jobs only when
+// enough items or enough time have accumulated. Flushes are additive deltas, so several
+// instances working on the same job each contribute their own share.
+@Component
+public class BatchProgressTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchProgressTracker.class);
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Value("${app.batch.progress.flush-every:100}")
+    private int flushEvery;
+
+    @Value("${app.batch.progress.flush-interval-ms:2000}")
+    private long flushIntervalMillis;
+
+    private final Map<UUID, JobProgress> liveJobs = new ConcurrentHashMap<>();
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchProgressTracker(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void record(UUID batchJobId, int successful, int failed) {
+        JobProgress progress = liveJobs.computeIfAbsent(batchJobId, id -> new JobProgress());
+        progress.successful.add(successful);
+        progress.failed.add(failed);
+
+        if (progress.isFlushDue(flushEvery, flushIntervalMillis)) {
+            flush(batchJobId, progress);
+        }
+    }
+
+    // Counters that were recorded after the last flush stay pending until a job goes quiet
+    @Scheduled(fixedDelayString = "${app.batch.progress.flush-interval-ms:2000}")
+    public void flushPending() {
+        liveJobs.forEach(this::flush);
+    }
+
+    // Called once the job's final counters have been written
+    public void complete(UUID batchJobId) {
+        liveJobs.remove(batchJobId);
+    }
+
+    // Counters recorded on this instance that have not reached batch_jobs yet
+    public Optional<JobProgress> getLiveProgress(UUID batchJobId) {
+        return Optional.ofNullable(liveJobs.get(batchJobId));
+    }
+
+    private void flush(UUID batchJobId, JobProgress progress) {
+        // Workers never queue up behind a flush; whoever holds the lock writes everything pending
+        if (!progress.flushLock.tryLock()) {
+            return;
+        }
+        try {
+            long successful = progress.successful.sum();
+            long failed = progress.failed.sum();
+            int successfulDelta = (int) (successful - progress.flushedSuccessful);
+            int failedDelta = (int) (failed - progress.flushedFailed);
+            if (successfulDelta == 0 && failedDelta == 0) {
+                return;
+            }
+
+            Integer updated = transactionTemplate.execute(status -> batchJobRepository.incrementProgress(
+                    batchJobId, successfulDelta + failedDelta, successfulDelta, failedDelta));
+            if (updated == null || updated == 0) {
+                // The job has been finalized with counters rebuilt from its items
+                liveJobs.remove(batchJobId);
+                return;
+            }
+
+            progress.flushedSuccessful = successful;
+            progress.flushedFailed = failed;
+            progress.lastFlushAt = System.currentTimeMillis();
+        } catch (Exception e) {
+            // Counters stay pending in memory and are retried on the next flush
+            logger.warn("Failed to flush progress for batch job {}: {}", batchJobId, e.getMessage());
+        } finally {
+            progress.flushLock.unlock();
+        }
+    }
+
+    public static class JobProgress {
+        private final LongAdder successful = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        // Written under flushLock, read without it when deciding whether a flush is due
+        private volatile long flushedSuccessful;
+        private volatile long flushedFailed;
+        private volatile long lastFlushAt = System.currentTimeMillis();
+
+        private boolean isFlushDue(int flushEvery, long flushIntervalMillis) {
+            return getPendingSuccessful() + getPendingFailed() >= flushEvery
+                    || System.currentTimeMillis() - lastFlushAt >= flushIntervalMillis;
+        }
+
+        public int getPendingSuccessful() {
+            return (int) (successful.sum() - flushedSuccessful);
+        }
+
+        public int getPendingFailed() {
+            return (int) (failed.sum() - flushedFailed);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.dto.PayrollDTO;
+import com.payroll.payroll_system.dto.PayrollRequestDTO;
+import com.payroll.payroll_system.entity.Employee;
+import com.payroll.payroll_system.entity.Payroll;
+import com.payroll.payroll_system.repository.EmployeeRepository;
+import com.payroll.payroll_system.repository.PayrollRepository;
+import com.payroll.payroll_system.util.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BulkPayrollService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkPayrollService.class);
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private PayrollWriter payrollWriter;
+
+    @Autowired
+    private PayrollRepository payrollRepository;
+
+    // Upper bound for IN-list sizes, keeps bind parameters well under the driver limit
+    @Value("${app.payroll.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    // Set-based equivalent of calling PayrollService.generatePayroll once per request.
+    // Requests for employees outside the organization and repeats of the same employee and period are skipped,
+    // so the result may be shorter than the input. Safe to retry: existing payrolls are updated, not duplicated.
+    @Transactional
+    public List<PayrollDTO> generatePayrolls(List<PayrollRequestDTO> requests, UUID organizationId) {
+        List<PayrollDTO> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<PayrollRequestDTO> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            results.addAll(generateChunk(chunk, organizationId));
+        }
+        logger.info("Bulk generated {} payrolls out of {} requests for organization: {}",
+                results.size(), requests.size(), organizationId);
+        return results;
+    }
+
+    private List<PayrollDTO> generateChunk(List<PayrollRequestDTO> requests, UUID organizationId) {
+        Set<UUID> employeeIds = requests.stream()
+                .map(PayrollRequestDTO::getEmployeeId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<UUID, Employee> employees = employeeRepository.findAllByIdInAndOrganizationId(employeeIds, organizationId)
+                .stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        // A batch normally covers a single pay period, so this is usually one attendance query per chunk
+        Map<PayPeriod, Set<UUID>> employeesByPeriod = new LinkedHashMap<>();
+        for (PayrollRequestDTO request : requests) {
+            if (employees.containsKey(request.getEmployeeId())) {
+                employeesByPeriod
+                        .computeIfAbsent(new PayPeriod(request.getStartDate(), request.getEndDate()), p -> new LinkedHashSet<>())
+                        .add(request.getEmployeeId());
+            }
+        }
+
+        Map<PayPeriod, Map<UUID, Long>> minutesByPeriod = new HashMap<>();
+        employeesByPeriod.forEach((period, ids) -> minutesByPeriod.put(period,
+                attendanceService.getWorkedMinutesForEmployees(ids, period.start(), period.end())));
+
+        // One payroll per employee and period; repeats within the chunk would collide in the upsert
+        Map<PayrollKey, Payroll> payrolls = new LinkedHashMap<>();
+        for (PayrollRequestDTO request : requests) {
+            Employee employee = employees.get(request.getEmployeeId());
+            if (employee == null) {
+                logger.warn("Skipping payroll for unknown employee {} in organization {}",
+                        request.getEmployeeId(), organizationId);
+                continue;
+            }
+            PayPeriod period = new PayPeriod(request.getStartDate(), request.getEndDate());
+            PayrollKey key = new PayrollKey(employee.getId(), period);
+            if (payrolls.containsKey(key)) {
+                continue;
+            }
+            long totalWorkMinutes = minutesByPeriod.get(period).getOrDefault(employee.getId(), 0L);
+
+            Payroll payroll = payrollService.calculatePayroll(employee, period.start(), period.end(), totalWorkMinutes);
+            payroll.setId(UuidV7.next());
+            payrolls.put(key, payroll);
+        }
+
+        payrollWriter.upsert(new ArrayList<>(payrolls.values()));
+
+        // Conflicting rows keep their original id and, once past DRAFT, their original amounts,
+        // so the stored rows are read back per period rather than echoing what was sent
+        Map<PayrollKey, Payroll> stored = new HashMap<>();
+        employeesByPeriod.forEach((period, ids) -> payrollRepository
+                .findByEmployeeIdInAndPayPeriod(ids, period.start(), period.end())
+                .forEach(payroll -> stored.put(new PayrollKey(payroll.getEmployee().getId(), period), payroll)));
+
+        return payrolls.keySet().stream()
+                .map(stored::get)
+                .map(payrollService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private record PayPeriod(LocalDate start, LocalDate end) {
+    }
+
+    private record PayrollKey(UUID employeeId, PayPeriod period) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.dto.AttendanceDTO;
+import com.payroll.payroll_system.service.CheckInWriteAheadLog.Tap;
+import com.payroll.payroll_system.util.UuidV7;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+// Accepts clock terminal check-ins without touching the database on the request thread. A tap is logged
+// to the write-ahead log, queued and acknowledged; the scheduled flush writes queued taps in JDBC
+// batches. Delivery is at least once: a tap replayed after a crash keeps its id and is inserted only once.
+// Taps recovered from the log are replayed by the scheduled flush, which only starts once the context
+// (and with it the Flyway migration) is up, and retries until the database accepts them.
+@Service
+public class CheckInIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInIngestionService.class);
+
+    // Taps for employees that do not exist (or were removed meanwhile) are dropped instead of failing the
+    // batch; a replayed tap conflicts on its id, a shift already imported on its (employee_id, check_in)
+    private static final String INSERT_CHECK_IN_SQL =
+            "INSERT INTO attendance (id, employee_id, check_in) " +
+            "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM employees WHERE id = ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private CheckInWriteAheadLog writeAheadLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OpenShiftIndex openShiftIndex;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Value("${app.attendance.ingest.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${app.attendance.ingest.batch-size:500}")
+    private int batchSize;
+
+    // A second tap by the same employee within the window is treated as a double tap
+    @Value("${app.attendance.ingest.dedupe-window:60s}")
+    private Duration dedupeWindow;
+
+    private BlockingQueue<Tap> queue;
+    private final Map<UUID, Tap> lastTapByEmployee = new ConcurrentHashMap<>();
+    // Ids handed out for taps whose rows are not written yet
+    private final Set<UUID> unwrittenIds = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+    // Taps left in the log by the previous run; written before any new tap
+    private List<Tap> recovered = List.of();
+    // A batch that failed to write; retried before anything else so the log stays in order
+    private List<Tap> pending = List.of();
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        recovered = writeAheadLog.open();
+        if (!recovered.isEmpty()) {
+            logger.info("Recovered {} check-ins from the write-ahead log, replaying them on the next flush",
+                    recovered.size());
+            recovered.forEach(tap -> unwrittenIds.add(tap.id()));
+        }
+    }
+
+    // Returns the acknowledged check-in (the earlier one for a double tap), or empty for an unknown
+    // employee. Throws RejectedExecutionException when the queue is full, so terminals back off and retry.
+    public Optional<AttendanceDTO> checkIn(UUID employeeId) {
+        if (!employeeService.employeeExists(employeeId)) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Tap tap;
+        synchronized (this) {
+            Tap previous = lastTapByEmployee.get(employeeId);
+            if (previous != null && previous.checkIn().plus(dedupeWindow).isAfter(now)) {
+                return Optional.of(toDTO(previous));
+            }
+            if (queue.remainingCapacity() == 0) {
+                throw new RejectedExecutionException("Check-in queue is full");
+            }
+            UUID id = UuidV7.next();
+            tap = new Tap(writeAheadLog.append(id, employeeId, now), id, employeeId, now);
+            queue.add(tap);
+            unwrittenIds.add(id);
+            lastTapByEmployee.put(employeeId, tap);
+        }
+        writeAheadLog.sync(tap.sequence());
+        return Optional.of(toDTO(tap));
+    }
+
+    @Scheduled(fixedDelayString = "${app.attendance.ingest.flush-interval-ms:200}")
+    public void flush() {
+        // Taps keep being accepted while a flush runs; only the shutdown flush can overlap with this one
+        synchronized (flushLock) {
+            try {
+                while (!recovered.isEmpty()) {
+                    List<Tap> batch = recovered.subList(0, Math.min(batchSize, recovered.size()));
+                    writeAndAcknowledge(batch);
+                    recovered = recovered.subList(batch.size(), recovered.size());
+                }
+                if (!pending.isEmpty()) {
+                    writeAndAcknowledge(pending);
+                }
+                List<Tap> batch = new ArrayList<>(batchSize);
+                while (queue.drainTo(batch, batchSize) > 0) {
+                    pending = batch;
+                    writeAndAcknowledge(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Writing check-ins failed ({} recovered, {} in the failed batch), retrying on the next flush",
+                        recovered.size(), pending.size(), e);
+            }
+        }
+        forgetExpiredTaps();
+    }
+
+    // A check-out right after a check-in on this instance may find the tap still queued; writing the
+    // queue first lets the check-out find the shift. Call outside a transaction, so the write commits
+    // before the log is trimmed.
+    public void flushRecentCheckIn(UUID employeeId) {
+        if (lastTapByEmployee.containsKey(employeeId)) {
+            flush();
+        }
+    }
+
+    // Same for a check-out by attendance id: the id is acknowledged before its row is written
+    public void flushUnwrittenCheckIn(UUID attendanceId) {
+        if (unwrittenIds.contains(attendanceId)) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void writeAndAcknowledge(List<Tap> batch) {
+        write(batch);
+        registerOpenShifts(batch);
+        batch.forEach(tap -> unwrittenIds.remove(tap.id()));
+        pending = List.of();
+        writeAheadLog.markWritten(batch.get(batch.size() - 1).sequence());
+    }
+
+    private void write(List<Tap> batch) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_CHECK_IN_SQL, batch, batch.size(), (ps, tap) -> {
+            ps.setObject(1, tap.id());
+            ps.setObject(2, tap.employeeId());
+            ps.setObject(3, tap.checkIn());
+            ps.setObject(4, tap.employeeId());
+        });
+        int skipped = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            logger.warn("Skipped {} check-ins for unknown employees or already written", skipped);
+        }
+    }
+
+    // The shifts become visible to check-out by employee once their rows exist
+    private void registerOpenShifts(List<Tap> batch) {
+        for (Tap tap : batch) {
+            openShiftIndex.opened(tap.employeeId(), tap.id(), tap.checkIn());
+        }
+    }
+
+    private void forgetExpiredTaps() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(dedupeWindow);
+        lastTapByEmployee.values().removeIf(tap -> tap.checkIn().isBefore(cutoff));
+    }
+
+    private AttendanceDTO toDTO(Tap tap) {
+        AttendanceDTO attendanceDTO = new AttendanceDTO();
+        attendanceDTO.setId(tap.id());
+        attendanceDTO.setEmployeeId(tap.employeeId());
+        attendanceDTO.setCheckIn(tap.checkIn());
+        return attendanceDTO;
+    }
+}
@@ -0,0 +1,234 @@
+package com.payroll.payroll_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Local append-only log of accepted check-in taps. A tap is acknowledged only after its record has been
+// forced to disk, so taps still waiting in memory survive a crash and are replayed after the next start.
+// Records go to numbered segment files; a segment is deleted once every tap in it has been written to
+// the database. Concurrent taps share a single fsync (group commit).
+@Component
+public class CheckInWriteAheadLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInWriteAheadLog.class);
+
+    private static final String SEGMENT_PREFIX = "checkins-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    @Value("${app.attendance.ingest.wal-dir:data/attendance-wal}")
+    private Path directory;
+
+    @Value("${app.attendance.ingest.wal-segment-bytes:16777216}")
+    private long maxSegmentBytes;
+
+    private final Object syncLock = new Object();
+    private final Deque<Segment> sealedSegments = new ArrayDeque<>();
+
+    private FileChannel channel;
+    private Path currentPath;
+    private long currentFirstSequence;
+    private long lastSequence;
+    private long syncedSequence;
+
+    public record Tap(long sequence, UUID id, UUID employeeId, LocalDateTime checkIn) {
+    }
+
+    private record Segment(Path path, long lastSequence) {
+    }
+
+    // Opens a new segment for this run and returns the taps the previous run left behind. Their segments
+    // are kept, ahead of the new one, until markWritten covers their sequences, so taps that could not be
+    // replayed yet survive another crash. New sequences continue after every leftover segment.
+    public synchronized List<Tap> open() {
+        List<Tap> taps = new ArrayList<>();
+        for (Path segment : leftoverSegments()) {
+            long segmentLastSequence = 0;
+            try {
+                for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                    Tap tap = parse(line);
+                    if (tap != null) {
+                        taps.add(tap);
+                        segmentLastSequence = tap.sequence();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read check-in log segment " + segment, e);
+            }
+            lastSequence = Math.max(lastSequence, Math.max(segmentLastSequence, firstSequenceOf(segment)));
+            if (segmentLastSequence == 0) {
+                // Nothing to replay in it (an idle log leaves an empty segment behind)
+                deleteSegment(segment);
+            } else {
+                sealedSegments.addLast(new Segment(segment, segmentLastSequence));
+            }
+        }
+        syncedSequence = lastSequence;
+        openSegment();
+        return taps;
+    }
+
+    // Appends the tap and returns its sequence; the record is durable only after sync(sequence)
+    public synchronized long append(UUID id, UUID employeeId, LocalDateTime checkIn) {
+        long sequence = lastSequence + 1;
+        String line = sequence + "," + id + "," + employeeId + "," + checkIn + "\n";
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to check-in log", e);
+        }
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    public void sync(long sequence) {
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                // Another tap's fsync already covered this record
+                return;
+            }
+            FileChannel target;
+            long upTo;
+            synchronized (this) {
+                target = channel;
+                upTo = lastSequence;
+            }
+            try {
+                target.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync check-in log", e);
+            }
+            syncedSequence = upTo;
+        }
+    }
+
+    // Called once every tap up to the sequence is in the database. The current segment is sealed when it
+    // is large or fully written, so an idle log shrinks back to an empty file.
+    public void markWritten(long sequence) {
+        synchronized (syncLock) {
+            synchronized (this) {
+                boolean fullyWritten = sequence >= lastSequence && lastSequence >= currentFirstSequence;
+                if (fullyWritten || segmentSize() >= maxSegmentBytes) {
+                    sealCurrentSegment();
+                }
+                while (!sealedSegments.isEmpty() && sealedSegments.peekFirst().lastSequence() <= sequence) {
+                    deleteSegment(sealedSegments.pollFirst().path());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (channel != null) {
+                    channel.force(false);
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    // Callers hold both locks
+    private void sealCurrentSegment() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not seal check-in log segment " + currentPath, e);
+        }
+        syncedSequence = lastSequence;
+        sealedSegments.addLast(new Segment(currentPath, lastSequence));
+        openSegment();
+    }
+
+    private void openSegment() {
+        currentFirstSequence = lastSequence + 1;
+        currentPath = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, currentFirstSequence, SEGMENT_SUFFIX));
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(currentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open check-in log segment " + currentPath, e);
+        }
+    }
+
+    private long segmentSize() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteSegment(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete check-in log segment {}", path, e);
+        }
+    }
+
+    private long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private List<Path> leftoverSegments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list check-in log directory " + directory, e);
+        }
+    }
+
+    // A crash can leave a half-written last line; it was never acknowledged, so it is skipped
+    private Tap parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            return new Tap(Long.parseLong(fields[0]), UUID.fromString(fields[1]), UUID.fromString(fields[2]),
+                    LocalDateTime.parse(fields[3]));
+        } catch (RuntimeException e) {
+            logger.warn("Skipping malformed check-in log record: {}", line);
+            return null;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.payroll.payroll_system.service;
 
+import com.payroll.payroll_system.config.CacheConfig;
 import com.payroll.payroll_system.dto.DepartmentDTO;
 import com.payroll.payroll_system.entity.Department;
 import com.payroll.payroll_system.entity.Organization;
 import com.payroll.payroll_system.repository.DepartmentRepository;
 import com.payroll.payroll_system.repository.OrganizationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,21 +26,28 @@ public class DepartmentService {
     @Autowired
     private OrganizationRepository organizationRepository;
     
+    @Autowired
+    private OrganizationService organizationService;
+    
+    @Cacheable(value = CacheConfig.DEPARTMENTS_BY_ORGANIZATION, key = "#organizationId")
     @Transactional(readOnly = true)
     public List<DepartmentDTO> getDepartmentsByOrganization(UUID organizationId) {
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+        if (!organizationService.organizationExists(organizationId)) {
+            throw new IllegalArgumentException("Organization not found");
+        }
         
-        return departmentRepository.findByOrganization(organization)
+        return departmentRepository.findByOrganization(organizationRepository.getReferenceById(organizationId))
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Cacheable(value = CacheConfig.DEPARTMENT, key = "#organizationId + ':' + #id", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<DepartmentDTO> getDepartmentByIdAndOrganization(UUID id, UUID organizationId) {
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+        if (!organizationService.organizationExists(organizationId)) {
+            throw new IllegalArgumentException("Organization not found");
+        }
         
         return departmentRepository.findById(id)
                 .filter(dept -> dept.getOrganization() != null && 
@@ -44,6 +55,7 @@ public class DepartmentService {
                 .map(this::convertToDTO);
     }
     
+    @CacheEvict(value = CacheConfig.DEPARTMENTS_BY_ORGANIZATION, key = "#departmentDTO.organizationId")
     @Transactional
     public DepartmentDTO createDepartment(DepartmentDTO departmentDTO) {
         Organization organization = organizationRepository.findById(departmentDTO.getOrganizationId())
@@ -58,6 +70,13 @@ public class DepartmentService {
         return convertToDTO(savedDepartment);
     }
     
+    // Employee DTOs carry the department name, so the organization's employee entries go too
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.DEPARTMENTS_BY_ORGANIZATION, key = "#organizationId"),
+            @CacheEvict(value = CacheConfig.DEPARTMENT, key = "#organizationId + ':' + #id"),
+            @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, key = "#organizationId"),
+            @CacheEvict(value = CacheConfig.EMPLOYEE, allEntries = true)
+    })
     @Transactional
     public Optional<DepartmentDTO> updateDepartmentForOrganization(UUID id, DepartmentDTO departmentDTO, UUID organizationId) {
         return departmentRepository.findById(id)
@@ -71,6 +90,12 @@ public class DepartmentService {
                 });
     }
     
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.DEPARTMENTS_BY_ORGANIZATION, key = "#organizationId"),
+            @CacheEvict(value = CacheConfig.DEPARTMENT, key = "#organizationId + ':' + #id"),
+            @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, key = "#organizationId"),
+            @CacheEvict(value = CacheConfig.EMPLOYEE, allEntries = true)
+    })
     @Transactional
     public boolean deleteDepartmentForOrganization(UUID id, UUID organizationId) {
         Optional<Department> departmentOpt = departmentRepository.findById(id)
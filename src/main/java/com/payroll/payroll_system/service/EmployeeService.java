@@ -1,20 +1,22 @@
 package com.payroll.payroll_system.service;
 
+import com.payroll.payroll_system.config.CacheConfig;
 import com.payroll.payroll_system.dto.EmployeeDTO;
 import com.payroll.payroll_system.entity.Employee;
-import com.payroll.payroll_system.entity.Organization;
 import com.payroll.payroll_system.repository.DepartmentRepository;
 import com.payroll.payroll_system.repository.EmployeeRepository;
 import com.payroll.payroll_system.repository.OrganizationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,12 +27,12 @@ public class EmployeeService {
     private DepartmentRepository departmentRepository;
     @Autowired
     private OrganizationRepository organizationRepository;
+    @Autowired
+    private OrganizationService organizationService;
 
     @Transactional(readOnly = true)
     public List<EmployeeDTO> getAllEmployees() {
-        return employeeRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return employeeRepository.findAllEmployeeDTOs();
     }
 
     @Transactional(readOnly = true)
@@ -39,22 +41,32 @@ public class EmployeeService {
                 .map(this::convertToDTO);
     }
 
+    @Cacheable(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, key = "#organizationId")
     @Transactional(readOnly = true)
     public List<EmployeeDTO> getEmployeesByOrganization(UUID organizationId) {
-        Organization organization = organizationRepository.findById(organizationId)
-                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+        if (!organizationService.organizationExists(organizationId)) {
+            throw new IllegalArgumentException("Organization not found");
+        }
         
-        return employeeRepository.findByOrganization(organization).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return employeeRepository.findEmployeeDTOsByOrganizationId(organizationId);
     }
     
+    @Cacheable(value = CacheConfig.EMPLOYEE, key = "#organizationId + ':' + #id", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<EmployeeDTO> getEmployeeByIdAndOrganization(UUID id, UUID organizationId) {
         return employeeRepository.findByIdAndOrganizationId(id, organizationId)
                 .map(this::convertToDTO);
     }
 
+    // Only existing employees are cached, so an employee created meanwhile is found right away
+    @Cacheable(value = CacheConfig.EXISTING_EMPLOYEES, key = "#id", unless = "!#result")
+    @Transactional(readOnly = true)
+    public boolean employeeExists(UUID id) {
+        return employeeRepository.existsById(id);
+    }
+
+    @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, key = "#employeeDTO.organizationId",
+            condition = "#employeeDTO.organizationId != null")
     @Transactional
     public EmployeeDTO createEmployee(EmployeeDTO employeeDTO) {
         Employee employee = convertToEntity(employeeDTO);
@@ -68,6 +80,11 @@ public class EmployeeService {
         return convertToDTO(savedEmployee);
     }
 
+    // Not scoped to an organization, so the owning tenant's keys are unknown here
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, allEntries = true),
+            @CacheEvict(value = CacheConfig.EMPLOYEE, allEntries = true)
+    })
     @Transactional
     public Optional<EmployeeDTO> updateEmployee(UUID id, EmployeeDTO employeeDTO) {
         return employeeRepository.findById(id)
@@ -77,6 +94,10 @@ public class EmployeeService {
                 });
     }
     
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, key = "#organizationId"),
+            @CacheEvict(value = CacheConfig.EMPLOYEE, key = "#organizationId + ':' + #id")
+    })
     @Transactional
     public Optional<EmployeeDTO> updateEmployeeForOrganization(UUID id, EmployeeDTO employeeDTO, UUID organizationId) {
         return employeeRepository.findByIdAndOrganizationId(id, organizationId)
@@ -86,6 +107,11 @@ public class EmployeeService {
                 });
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, allEntries = true),
+            @CacheEvict(value = CacheConfig.EMPLOYEE, allEntries = true),
+            @CacheEvict(value = CacheConfig.EXISTING_EMPLOYEES, key = "#id")
+    })
     @Transactional
     public boolean deleteEmployee(UUID id) {
         if (employeeRepository.existsById(id)) {
@@ -95,6 +121,11 @@ public class EmployeeService {
         return false;
     }
     
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.EMPLOYEES_BY_ORGANIZATION, key = "#organizationId"),
+            @CacheEvict(value = CacheConfig.EMPLOYEE, key = "#organizationId + ':' + #id"),
+            @CacheEvict(value = CacheConfig.EXISTING_EMPLOYEES, key = "#id")
+    })
     @Transactional
     public boolean deleteEmployeeForOrganization(UUID id, UUID organizationId) {
         Optional<Employee> employee = employeeRepository.findByIdAndOrganizationId(id, organizationId);
@@ -0,0 +1,59 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Password verification is deliberately slow, so it runs on the bounded login executor instead of the
+// request threads: a burst of logins queues up there (and is rejected once the queue is full) while
+// every other endpoint keeps its threads.
+@Service
+public class LoginService {
+
+    private static final String LOGIN_TIMER = "payroll.auth.login";
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    @Qualifier("loginExecutor")
+    private TaskExecutor loginExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Completes with the authenticated user, or exceptionally with the AuthenticationException.
+    // Throws TaskRejectedException straight away when the login queue is full.
+    public CompletableFuture<User> authenticate(String username, String password) {
+        // Timed from the request, so the recorded latency includes the time spent queued
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> (User) authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(username, password)).getPrincipal(), loginExecutor)
+                    .whenComplete((user, e) -> sample.stop(meterRegistry.timer(LOGIN_TIMER, "outcome", outcome(e))));
+        } catch (TaskRejectedException e) {
+            sample.stop(meterRegistry.timer(LOGIN_TIMER, "outcome", "rejected"));
+            throw e;
+        }
+    }
+
+    private String outcome(Throwable e) {
+        if (e == null) {
+            return "success";
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof BadCredentialsException ? "bad_credentials" : "error";
+    }
+}
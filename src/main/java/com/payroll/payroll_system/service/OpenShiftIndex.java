@@ -0,0 +1,83 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.repository.AttendanceRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The open shift (attendance without a check-out) of every employee, so a check-out by employee is a map
+// lookup instead of a scan of the employee's history. Loaded from the database on startup and kept
+// current by the check-in, check-out and auto-close paths. An entry may be stale (the row was closed
+// elsewhere or never written), so callers confirm it against the row before using it.
+@Component
+public class OpenShiftIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenShiftIndex.class);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    private final Map<UUID, OpenShift> openShifts = new ConcurrentHashMap<>();
+
+    public record OpenShift(UUID attendanceId, LocalDateTime checkIn) {
+    }
+
+    @PostConstruct
+    void load() {
+        // Rows are [attendanceId, employeeId, checkIn]
+        for (Object[] row : attendanceRepository.findOpenShifts()) {
+            opened((UUID) row[1], (UUID) row[0], (LocalDateTime) row[2]);
+        }
+        logger.info("Loaded {} open shifts", openShifts.size());
+    }
+
+    public OpenShift get(UUID employeeId) {
+        return openShifts.get(employeeId);
+    }
+
+    // An employee has at most one open shift; the latest check-in wins
+    public void opened(UUID employeeId, UUID attendanceId, LocalDateTime checkIn) {
+        openShifts.merge(employeeId, new OpenShift(attendanceId, checkIn),
+                (current, opened) -> opened.checkIn().isBefore(current.checkIn()) ? current : opened);
+    }
+
+    public void openedAfterCommit(UUID employeeId, UUID attendanceId, LocalDateTime checkIn) {
+        afterCommit(() -> opened(employeeId, attendanceId, checkIn));
+    }
+
+    public void closed(UUID employeeId, UUID attendanceId) {
+        openShifts.computeIfPresent(employeeId,
+                (id, shift) -> shift.attendanceId().equals(attendanceId) ? null : shift);
+    }
+
+    public void closedAfterCommit(UUID employeeId, UUID attendanceId) {
+        afterCommit(() -> closed(employeeId, attendanceId));
+    }
+
+    // Mirrors AttendanceRepository.closeShiftsOpenedBefore
+    public void closedOpenedBeforeAfterCommit(LocalDateTime cutoff) {
+        afterCommit(() -> openShifts.values().removeIf(shift -> shift.checkIn().isBefore(cutoff)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.config.CacheConfig;
+import com.payroll.payroll_system.repository.OrganizationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+public class OrganizationService {
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    // Only positive answers are cached, so an organization created after a miss is seen right away
+    @Cacheable(value = CacheConfig.ORGANIZATIONS, key = "#organizationId", unless = "!#result")
+    public boolean organizationExists(UUID organizationId) {
+        return organizationRepository.existsById(organizationId);
+    }
+}
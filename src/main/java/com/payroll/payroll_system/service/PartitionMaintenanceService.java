@@ -0,0 +1,78 @@
+package com.payroll.payroll_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Keeps the monthly partitions of attendance and activities (see V6 migration) in shape: partitions are
+// created a few months ahead so new rows never land in the default partition, and months older than
+// the retention period are moved to the archive tables. Archiving detaches and re-attaches the
+// partition, so no rows are copied; archived rows no longer slow down the live tables but stay
+// queryable, and the worked minutes ledger keeps their totals.
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final List<String> PARTITIONED_TABLES = List.of("attendance", "activities");
+    private static final Pattern PARTITION_NAME = Pattern.compile("_y(\\d{4})m(\\d{2})$");
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT child.relname FROM pg_inherits i " +
+            "JOIN pg_class parent ON parent.oid = i.inhparent " +
+            "JOIN pg_class child ON child.oid = i.inhrelid " +
+            "WHERE parent.relname = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // Whole months kept in the live tables, the current one included
+    @Value("${app.partitions.retain-months:24}")
+    private int retainMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            logger.error("Partition maintenance on startup failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.partitions.maintenance-cron:0 30 2 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        YearMonth oldestRetained = current.minusMonths(retainMonths - 1L);
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                jdbcTemplate.queryForList("SELECT create_monthly_partition(?, ?)",
+                        table, current.plusMonths(i).atDay(1));
+            }
+            for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table)) {
+                Matcher matcher = PARTITION_NAME.matcher(partition);
+                if (!matcher.find()) {
+                    continue;
+                }
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (month.isBefore(oldestRetained)) {
+                    jdbcTemplate.queryForList("SELECT archive_monthly_partition(?, ?)", table, month.atDay(1));
+                    logger.info("Archived partition {} into {}_archive", partition, table);
+                }
+            }
+        }
+    }
+}
@@ -1,27 +1,29 @@
 package com.payroll.payroll_system.service;
 
 import com.payroll.payroll_system.constant.PayrollStatus;
+import com.payroll.payroll_system.dto.CursorPage;
 import com.payroll.payroll_system.dto.PayrollDTO;
-import com.payroll.payroll_system.entity.Attendance;
+import com.payroll.payroll_system.entity.Employee;
 import com.payroll.payroll_system.entity.Payroll;
 import com.payroll.payroll_system.repository.ActivityRepository;
-import com.payroll.payroll_system.repository.AttendanceRepository;
 import com.payroll.payroll_system.repository.EmployeeRepository;
 import com.payroll.payroll_system.repository.OrganizationRepository;
 import com.payroll.payroll_system.repository.PayrollRepository;
+import com.payroll.payroll_system.util.PageCursor;
+import com.payroll.payroll_system.util.UuidV7;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 @Service
 @RequiredArgsConstructor
 public class PayrollService {
@@ -30,82 +32,92 @@ public class PayrollService {
     @Autowired
     private EmployeeRepository employeeRepository;
     @Autowired
-    private AttendanceRepository attendanceRepository;
+    private AttendanceService attendanceService;
     @Autowired
     private ActivityRepository activityRepository;
     @Autowired
     private OrganizationRepository organizationRepository;
+    @Autowired
+    private PayrollWriter payrollWriter;
 
     @Transactional(readOnly = true)
     public List<PayrollDTO> getAllPayrolls() {
-        return payrollRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return payrollRepository.findAllPayrollDTOs();
     }
 
     @Transactional(readOnly = true)
     public List<PayrollDTO> getPayrollsByEmployeeId(UUID employeeId) {
-        return payrollRepository.findByEmployeeId(employeeId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return payrollRepository.findPayrollDTOsByEmployeeId(employeeId);
     }
 
     @Transactional(readOnly = true)
     public List<PayrollDTO> getPayrollsByOrganization(UUID organizationId) {
-        return payrollRepository.findByEmployeeOrganizationId(organizationId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return payrollRepository.findPayrollDTOsByOrganizationId(organizationId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PayrollDTO> getPayrollPageByOrganization(UUID organizationId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<PayrollDTO> rows;
+        if (after == null) {
+            rows = payrollRepository.findFirstPayrollsPageByOrganizationId(organizationId, Limit.of(pageSize + 1));
+        } else if (after.sortKey() == null) {
+            rows = payrollRepository.findUnprocessedPayrollsPageByOrganizationIdAfter(
+                    organizationId, after.id(), Limit.of(pageSize + 1));
+        } else {
+            rows = payrollRepository.findPayrollsPageByOrganizationIdAfter(
+                    organizationId, after.sortKey(), after.id(), Limit.of(pageSize + 1));
+        }
+        return CursorPage.of(rows, pageSize, Function.identity(),
+                payroll -> new PageCursor(payroll.getProcessedAt(), payroll.getId()));
     }
 
     @Transactional(readOnly = true)
     public List<PayrollDTO> getPayrollsByEmployeeIdAndOrganization(UUID employeeId, UUID organizationId) {
-        return payrollRepository.findByEmployeeIdAndEmployeeOrganizationId(employeeId, organizationId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return payrollRepository.findPayrollDTOsByEmployeeIdAndOrganizationId(employeeId, organizationId);
     }
 
     @Transactional
     public Optional<PayrollDTO> generatePayroll(UUID employeeId, LocalDate startDate, LocalDate endDate, UUID organizationId) {
         return employeeRepository.findByIdAndOrganizationId(employeeId, organizationId)
                 .map(employee -> {
-                    // Calculate working hours
-                    LocalDateTime startDateTime = startDate.atStartOfDay();
-                    LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-                    List<Attendance> attendances = attendanceRepository
-                            .findByEmployeeIdAndCheckInBetween(employeeId, startDateTime, endDateTime);
+                    // Worked time is aggregated in the database instead of loading every Attendance row
+                    long totalWorkMinutes = attendanceService.getWorkedMinutes(employeeId, startDate, endDate);
 
-                    // Calculate regular hours and overtime
-                    long totalWorkMinutes = 0;
-                    for (Attendance attendance : attendances) {
-                        if (attendance.getCheckOut() != null) {
-                            totalWorkMinutes += ChronoUnit.MINUTES.between(attendance.getCheckIn(), attendance.getCheckOut());
-                        }
-                    }
-
-                    // Standard working hours per month (assuming 8 hours per day, 22 working days)
-                    long standardWorkMinutes = 8 * 60 * 22;
-                    long overtimeMinutes = Math.max(0, totalWorkMinutes - standardWorkMinutes);
+                    // Repeated requests for the same period update the existing draft instead of adding a row
+                    Payroll payroll = calculatePayroll(employee, startDate, endDate, totalWorkMinutes);
+                    payroll.setId(UuidV7.next());
+                    payrollWriter.upsert(List.of(payroll));
+                    return payrollRepository.findByEmployeeIdAndPayPeriodStartAndPayPeriodEnd(employeeId, startDate, endDate)
+                            .map(this::convertToDTO)
+                            .orElseThrow(() -> new IllegalStateException("Payroll was not stored"));
+                });
+    }
 
-                    // Calculate overtime payment (assuming 1.5x rate)
-                    BigDecimal hourlyRate = employee.getBaseSalary().divide(BigDecimal.valueOf(standardWorkMinutes / 60), 2, BigDecimal.ROUND_HALF_UP);
-                    BigDecimal overtimePay = hourlyRate.multiply(BigDecimal.valueOf(1.5)).multiply(BigDecimal.valueOf(overtimeMinutes / 60.0));
+    // Shared by the single-employee path and BulkPayrollService so both produce identical payrolls
+    Payroll calculatePayroll(Employee employee, LocalDate startDate, LocalDate endDate, long totalWorkMinutes) {
+        // Standard working hours per month (assuming 8 hours per day, 22 working days)
+        long standardWorkMinutes = 8 * 60 * 22;
+        long overtimeMinutes = Math.max(0, totalWorkMinutes - standardWorkMinutes);
 
-                    // Create payroll record
-                    Payroll payroll = new Payroll();
-                    payroll.setEmployee(employee);
-                    payroll.setPayPeriodStart(startDate);
-                    payroll.setPayPeriodEnd(endDate);
-                    payroll.setBasicSalary(employee.getBaseSalary());
-                    payroll.setOvertime(overtimePay);
-                    payroll.setDeductions(BigDecimal.ZERO); // Placeholder for tax calculations
-                    payroll.setBonus(BigDecimal.ZERO); // Placeholder for bonus calculations
-                    payroll.setNetSalary(employee.getBaseSalary().add(overtimePay)); // Simplified calculation
-                    payroll.setStatus(PayrollStatus.DRAFT);
-                    payroll.setProcessedAt(LocalDateTime.now());
+        // Calculate overtime payment (assuming 1.5x rate)
+        BigDecimal hourlyRate = employee.getBaseSalary().divide(BigDecimal.valueOf(standardWorkMinutes / 60), 2, BigDecimal.ROUND_HALF_UP);
+        BigDecimal overtimePay = hourlyRate.multiply(BigDecimal.valueOf(1.5)).multiply(BigDecimal.valueOf(overtimeMinutes / 60.0));
 
-                    return convertToDTO(payrollRepository.save(payroll));
-                });
+        // Create payroll record
+        Payroll payroll = new Payroll();
+        payroll.setEmployee(employee);
+        payroll.setPayPeriodStart(startDate);
+        payroll.setPayPeriodEnd(endDate);
+        payroll.setBasicSalary(employee.getBaseSalary());
+        payroll.setOvertime(overtimePay);
+        payroll.setDeductions(BigDecimal.ZERO); // Placeholder for tax calculations
+        payroll.setBonus(BigDecimal.ZERO); // Placeholder for bonus calculations
+        payroll.setNetSalary(employee.getBaseSalary().add(overtimePay)); // Simplified calculation
+        payroll.setStatus(PayrollStatus.DRAFT);
+        payroll.setProcessedAt(LocalDateTime.now());
+        return payroll;
     }
 
     @Transactional
@@ -117,7 +129,7 @@ public class PayrollService {
                 });
     }
 
-    private PayrollDTO convertToDTO(Payroll payroll) {
+    PayrollDTO convertToDTO(Payroll payroll) {
           PayrollDTO payrollDTO = new PayrollDTO();
             payrollDTO.setId(payroll.getId());
             payrollDTO.setEmployeeId(payroll.getEmployee().getId());
@@ -0,0 +1,52 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.constant.PayrollStatus;
+import com.payroll.payroll_system.entity.Payroll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Writes payrolls idempotently on (employee_id, pay_period_start, pay_period_end). A DRAFT payroll
+// for the same period is recalculated in place and keeps its id; anything past DRAFT is left untouched.
+@Component
+public class PayrollWriter {
+
+    // PayrollStatus is mapped with the default ordinal strategy
+    private static final String UPSERT_PAYROLL_SQL =
+            "INSERT INTO payrolls (id, employee_id, pay_period_start, pay_period_end, basic_salary, overtime, " +
+            "deductions, bonus, net_salary, status, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (employee_id, pay_period_start, pay_period_end) DO UPDATE SET " +
+            "basic_salary = EXCLUDED.basic_salary, overtime = EXCLUDED.overtime, deductions = EXCLUDED.deductions, " +
+            "bonus = EXCLUDED.bonus, net_salary = EXCLUDED.net_salary, processed_at = EXCLUDED.processed_at " +
+            "WHERE payrolls.status = " + PayrollStatus.DRAFT.ordinal();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.payroll.bulk.chunk-size:1000}")
+    private int batchSize;
+
+    // The batch may be rewritten into one multi-row INSERT, which rejects two rows for the same key,
+    // so callers must pass at most one payroll per employee and period
+    public void upsert(List<Payroll> payrolls) {
+        if (payrolls.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PAYROLL_SQL, payrolls, batchSize, (ps, payroll) -> {
+            ps.setObject(1, payroll.getId());
+            ps.setObject(2, payroll.getEmployee().getId());
+            ps.setObject(3, payroll.getPayPeriodStart());
+            ps.setObject(4, payroll.getPayPeriodEnd());
+            ps.setBigDecimal(5, payroll.getBasicSalary());
+            ps.setBigDecimal(6, payroll.getOvertime());
+            ps.setBigDecimal(7, payroll.getDeductions());
+            ps.setBigDecimal(8, payroll.getBonus());
+            ps.setBigDecimal(9, payroll.getNetSalary());
+            ps.setInt(10, payroll.getStatus().ordinal());
+            ps.setObject(11, payroll.getProcessedAt());
+        });
+    }
+}
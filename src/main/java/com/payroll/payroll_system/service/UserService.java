@@ -4,12 +4,15 @@ import com.payroll.payroll_system.entity.Organization;
 import com.payroll.payroll_system.entity.User;
 import com.payroll.payroll_system.repository.OrganizationRepository;
 import com.payroll.payroll_system.repository.UserRepository;
+import com.payroll.payroll_system.security.PrincipalCache;
+import com.payroll.payroll_system.security.TokenRevocationList;
 import jakarta.mail.MessagingException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,12 +24,14 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
     
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
@@ -35,11 +40,15 @@ public class UserService implements UserDetailsService {
             UserRepository userRepository,
             OrganizationRepository organizationRepository,
             @Lazy PasswordEncoder passwordEncoder,
-            EmailService emailService) {
+            EmailService emailService,
+            PrincipalCache principalCache,
+            TokenRevocationList tokenRevocationList) {
         this.userRepository = userRepository;
         this.organizationRepository = organizationRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.principalCache = principalCache;
+        this.tokenRevocationList = tokenRevocationList;
     }
     
     @Override
@@ -48,6 +57,17 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
     
+    // Called by the authentication provider with the password already encoded at the current strength.
+    // The password itself is unchanged, so issued tokens stay valid.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+    }
+    
     public User getCurrentUser(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
@@ -122,9 +142,13 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setResetToken(null);
         user.setResetTokenExpiry(null);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         user.setUpdatedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        principalCache.invalidateAfterCommit(user.getUsername());
+        // Stateless tokens are never checked against the stored version
+        tokenRevocationList.revokeTokensBelow(user.getUsername(), user.getTokenVersion());
         
         try {
             emailService.sendPasswordChangedEmail(
@@ -137,7 +161,7 @@ public class UserService implements UserDetailsService {
     }
     
     @Transactional
-    public void changePassword(String username, String currentPassword, String newPassword) {
+    public User changePassword(String username, String currentPassword, String newPassword) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
         
@@ -146,9 +170,13 @@ public class UserService implements UserDetailsService {
         }
         
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         user.setUpdatedAt(LocalDateTime.now());
         
-        userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.invalidateAfterCommit(user.getUsername());
+        // Stateless tokens are never checked against the stored version
+        tokenRevocationList.revokeTokensBelow(user.getUsername(), user.getTokenVersion());
         
         try {
             emailService.sendPasswordChangedEmail(
@@ -158,6 +186,8 @@ public class UserService implements UserDetailsService {
         } catch (MessagingException e) {
             // Log the error but continue
         }
+        
+        return savedUser;
     }
     
     public List<User> getUsersByOrganization(UUID organizationId) {
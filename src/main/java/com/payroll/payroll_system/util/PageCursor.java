@@ -0,0 +1,34 @@
+package com.payroll.payroll_system.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position of the last row of a keyset page: its sort timestamp plus the id as tie-breaker.
+// Clients only ever see the opaque, URL-safe encoded form. A null sort key (e.g. a payroll that was
+// never processed) is encoded as an empty key.
+public record PageCursor(LocalDateTime sortKey, UUID id) {
+
+    public String encode() {
+        String raw = (sortKey == null ? "" : sortKey.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor, which means the first page
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String sortKey = raw.substring(0, separator);
+            return new PageCursor(sortKey.isEmpty() ? null : LocalDateTime.parse(sortKey),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.payroll.payroll_system.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered UUIDs (RFC 9562 version 7): 48 bits of Unix milliseconds, then a 12-bit counter and 62
+// random bits. Ids created close together sort close together, so inserts append to the right edge
+// of the primary key index instead of touching random pages. Ids from one JVM are strictly increasing;
+// when more than 4096 are created within a millisecond the counter borrows from the next millisecond.
+// Not for values that must be unguessable (reset tokens, token ids): the leading bits are the clock.
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Milliseconds shifted left by 12, plus the counter
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << 12;
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(candidate, last + 1));
+
+        long mostSigBits = (timeAndCounter >>> 12) << 16   // unix_ts_ms
+                | 0x7000L                                    // version
+                | (timeAndCounter & 0xFFFL);                 // rand_a, used as counter
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variant
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,156 @@
+-- Schema as Hibernate created it (ddl-auto=update) from the entities before migrations were introduced,
+-- including the generated constraint names. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it, so everything added since lives in V2 and later.
+
+CREATE TABLE organizations (
+    id uuid NOT NULL,
+    name varchar(255) NOT NULL,
+    address varchar(255),
+    phone varchar(255),
+    email varchar(255),
+    tax_id varchar(255),
+    website varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    active boolean NOT NULL,
+    CONSTRAINT organizations_pkey PRIMARY KEY (id),
+    CONSTRAINT ukp9pbw3flq9hkay8hdx3ypsldy UNIQUE (name)
+);
+
+CREATE TABLE departments (
+    id uuid NOT NULL,
+    name varchar(255),
+    code varchar(255),
+    organization_id uuid,
+    CONSTRAINT departments_pkey PRIMARY KEY (id),
+    CONSTRAINT fk69kdxq27lkb5p622ypc93tcr4 FOREIGN KEY (organization_id) REFERENCES organizations (id)
+);
+
+CREATE TABLE employees (
+    id uuid NOT NULL,
+    first_name varchar(255),
+    last_name varchar(255),
+    phone varchar(255),
+    document_id varchar(255),
+    email varchar(255),
+    date_of_joining date,
+    base_salary numeric(38, 2),
+    status smallint CHECK (status BETWEEN 0 AND 1),
+    department_id uuid,
+    organization_id uuid,
+    CONSTRAINT employees_pkey PRIMARY KEY (id),
+    CONSTRAINT fkgy4qe3dnqrm3ktd76sxp7n4c2 FOREIGN KEY (department_id) REFERENCES departments (id),
+    CONSTRAINT fkh62l7gpgesex8wjd6himtb3e1 FOREIGN KEY (organization_id) REFERENCES organizations (id)
+);
+
+CREATE TABLE users (
+    id uuid NOT NULL,
+    username varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    first_name varchar(255),
+    last_name varchar(255),
+    enabled boolean NOT NULL,
+    account_non_expired boolean NOT NULL,
+    account_non_locked boolean NOT NULL,
+    credentials_non_expired boolean NOT NULL,
+    reset_token varchar(255),
+    reset_token_expiry timestamp(6),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    last_login_at timestamp(6),
+    organization_id uuid,
+    employee_id uuid,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT ukr43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email),
+    CONSTRAINT fkqpugllwvyv37klq7ft9m8aqxk FOREIGN KEY (organization_id) REFERENCES organizations (id),
+    CONSTRAINT fk6p2ib82uai0pj9yk1iassppgq FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
+
+CREATE TABLE user_roles (
+    user_id uuid NOT NULL,
+    role varchar(255),
+    CONSTRAINT fkhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE attendance (
+    id uuid NOT NULL,
+    check_in timestamp(6),
+    check_out timestamp(6),
+    employee_id uuid,
+    CONSTRAINT attendance_pkey PRIMARY KEY (id),
+    CONSTRAINT fkb48lmkou5j4rvde9sr88bqgjw FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
+
+CREATE TABLE activities (
+    id uuid NOT NULL,
+    description varchar(255),
+    start_time timestamp(6),
+    end_time timestamp(6),
+    type smallint CHECK (type BETWEEN 0 AND 5),
+    employee_id uuid,
+    CONSTRAINT activities_pkey PRIMARY KEY (id),
+    CONSTRAINT fkolqfxude3ki5reapiyat5fc98 FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
+
+CREATE TABLE payrolls (
+    id uuid NOT NULL,
+    pay_period_start date,
+    pay_period_end date,
+    basic_salary numeric(38, 2),
+    overtime numeric(38, 2),
+    deductions numeric(38, 2),
+    bonus numeric(38, 2),
+    net_salary numeric(38, 2),
+    status smallint CHECK (status BETWEEN 0 AND 3),
+    processed_at timestamp(6),
+    employee_id uuid,
+    CONSTRAINT payrolls_pkey PRIMARY KEY (id),
+    CONSTRAINT fkiyfp8uysuhgfkod3xcdhjm7qf FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
+
+CREATE TABLE advances (
+    id uuid NOT NULL,
+    employee_id uuid NOT NULL,
+    organization_id uuid NOT NULL,
+    amount numeric(38, 2) NOT NULL,
+    reason varchar(255) NOT NULL,
+    status varchar(255),
+    rejection_reason varchar(255),
+    approved_by uuid,
+    approval_date timestamp(6),
+    request_date timestamp(6) NOT NULL,
+    repayment_date timestamp(6) NOT NULL,
+    fully_repaid boolean NOT NULL,
+    repaid_amount numeric(38, 2),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    CONSTRAINT advances_pkey PRIMARY KEY (id),
+    CONSTRAINT fk9vkd6nmetite551mil4fjqu0b FOREIGN KEY (employee_id) REFERENCES employees (id),
+    CONSTRAINT fkj5tqg50fi4n38b65vw3xgq3gc FOREIGN KEY (organization_id) REFERENCES organizations (id),
+    CONSTRAINT fkoiv4rce35f40bn5hb15x9c4q9 FOREIGN KEY (approved_by) REFERENCES users (id)
+);
+
+CREATE TABLE batch_jobs (
+    id uuid NOT NULL,
+    job_type varchar(255) NOT NULL,
+    status varchar(255) NOT NULL,
+    submitted_at timestamp(6) NOT NULL,
+    started_at timestamp(6),
+    completed_at timestamp(6),
+    total_requests integer NOT NULL,
+    processed_requests integer,
+    successful_requests integer,
+    failed_requests integer,
+    callback_url varchar(255),
+    description varchar(255),
+    requested_by uuid,
+    organization_id uuid,
+    result_details text,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    CONSTRAINT batch_jobs_pkey PRIMARY KEY (id),
+    CONSTRAINT fk2of78mdrwpa8n4kys2osseopd FOREIGN KEY (requested_by) REFERENCES users (id),
+    CONSTRAINT fksga048n2e22wepmwp3dwlqhs1 FOREIGN KEY (organization_id) REFERENCES organizations (id)
+);
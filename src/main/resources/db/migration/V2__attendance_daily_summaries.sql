@@ -0,0 +1,13 @@
+-- Per-employee, per-day worked minutes, maintained on check-out (AttendanceDailySummary). Payroll and
+-- reporting sum these rows instead of scanning raw attendance. Periods with attendance from before
+-- this table existed are backfilled with POST /api/attendance/worked-minutes/rebuild.
+CREATE TABLE attendance_daily_summaries (
+    id uuid NOT NULL,
+    employee_id uuid NOT NULL,
+    work_date date NOT NULL,
+    worked_minutes bigint NOT NULL,
+    updated_at timestamp(6),
+    CONSTRAINT attendance_daily_summaries_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_attendance_daily_summaries_employee_date UNIQUE (employee_id, work_date),
+    CONSTRAINT fk_attendance_daily_summaries_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
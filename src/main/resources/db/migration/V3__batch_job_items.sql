@@ -0,0 +1,20 @@
+-- Durable work queue behind batch_jobs (BatchJobItem): workers claim PENDING items with
+-- FOR UPDATE SKIP LOCKED and checkpoint them as DONE or FAILED
+CREATE TABLE batch_job_items (
+    id uuid NOT NULL,
+    batch_job_id uuid NOT NULL,
+    seq integer NOT NULL,
+    payload text NOT NULL,
+    status varchar(255) NOT NULL,
+    attempts integer NOT NULL,
+    error text,
+    claimed_by varchar(255),
+    claimed_at timestamp(6),
+    completed_at timestamp(6),
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT batch_job_items_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_batch_job_items_job_seq UNIQUE (batch_job_id, seq),
+    CONSTRAINT fk_batch_job_items_batch_job FOREIGN KEY (batch_job_id) REFERENCES batch_jobs (id)
+);
+
+CREATE INDEX idx_batch_job_items_status_created ON batch_job_items (status, created_at);
@@ -0,0 +1,20 @@
+-- One payroll per employee and pay period; payroll generation upserts against this constraint
+-- (ON CONFLICT (employee_id, pay_period_start, pay_period_end)).
+--
+-- Repeated generation before the constraint left several payrolls for the same period. Keep the one
+-- furthest along (PAID, APPROVED, PROCESSED, then DRAFT by status ordinal), the latest processed
+-- among equals. Rows with a null key column never conflict and are left alone.
+DELETE FROM payrolls
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, row_number() OVER (
+                PARTITION BY employee_id, pay_period_start, pay_period_end
+                ORDER BY status DESC NULLS LAST, processed_at DESC NULLS LAST, id DESC) AS position
+        FROM payrolls
+        WHERE employee_id IS NOT NULL AND pay_period_start IS NOT NULL AND pay_period_end IS NOT NULL
+    ) ranked
+    WHERE position > 1
+);
+
+ALTER TABLE payrolls
+    ADD CONSTRAINT uk_payrolls_employee_period UNIQUE (employee_id, pay_period_start, pay_period_end);
@@ -0,0 +1,2 @@
+-- Carried in every token as the "ver" claim; bumping it invalidates all tokens issued before
+ALTER TABLE users ADD COLUMN token_version integer DEFAULT 0 NOT NULL;
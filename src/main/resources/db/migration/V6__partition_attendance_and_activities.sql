@@ -0,0 +1,143 @@
+-- attendance and activities grow with every shift, so both are range partitioned by month on their
+-- timestamp. Queries that filter on the timestamp only touch the months they ask for, and old months
+-- are moved to the matching *_archive table by detaching the partition, without copying rows
+-- (see PartitionMaintenanceService). Partitions are named <table>_yYYYYmMM.
+--
+-- The primary key of a partitioned table has to include the partition key, so ids are unique per
+-- (id, timestamp); ids are random UUIDs, so this changes nothing in practice.
+
+CREATE FUNCTION create_monthly_partition(parent text, partition_month date) RETURNS void AS $$
+DECLARE
+    first_day date := date_trunc('month', partition_month);
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            parent || '_' || to_char(first_day, '"y"YYYY"m"MM'), parent,
+            first_day, (first_day + interval '1 month')::date);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION archive_monthly_partition(parent text, partition_month date) RETURNS void AS $$
+DECLARE
+    first_day date := date_trunc('month', partition_month);
+    partition_name text := parent || '_' || to_char(first_day, '"y"YYYY"m"MM');
+BEGIN
+    EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, partition_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            parent || '_archive', partition_name, first_day, (first_day + interval '1 month')::date);
+END;
+$$ LANGUAGE plpgsql;
+
+-- attendance
+
+ALTER TABLE attendance RENAME TO attendance_unpartitioned;
+ALTER TABLE attendance_unpartitioned RENAME CONSTRAINT attendance_pkey TO attendance_unpartitioned_pkey;
+
+CREATE TABLE attendance (
+    id uuid NOT NULL,
+    check_in timestamp(6) NOT NULL,
+    check_out timestamp(6),
+    employee_id uuid,
+    CONSTRAINT attendance_pkey PRIMARY KEY (id, check_in),
+    CONSTRAINT fk_attendance_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+) PARTITION BY RANGE (check_in);
+
+CREATE TABLE attendance_archive (
+    id uuid NOT NULL,
+    check_in timestamp(6) NOT NULL,
+    check_out timestamp(6),
+    employee_id uuid,
+    CONSTRAINT attendance_archive_pkey PRIMARY KEY (id, check_in)
+) PARTITION BY RANGE (check_in);
+
+-- Catches rows outside the prepared months; stays empty while partitions are created ahead of time
+CREATE TABLE attendance_default PARTITION OF attendance DEFAULT;
+
+CREATE INDEX idx_attendance_employee_check_in ON attendance (employee_id, check_in);
+-- Open shifts are looked up by employee (OpenShiftIndex) and closed in bulk by the auto-close job
+CREATE INDEX idx_attendance_open_shift ON attendance (employee_id) WHERE check_out IS NULL;
+CREATE INDEX idx_attendance_archive_employee_check_in ON attendance_archive (employee_id, check_in);
+
+DO $$
+DECLARE
+    partition_month date;
+BEGIN
+    FOR partition_month IN
+        SELECT generate_series(
+                date_trunc('month', LEAST(COALESCE((SELECT min(check_in) FROM attendance_unpartitioned), now()), now())),
+                date_trunc('month', now()) + interval '3 months',
+                interval '1 month')::date
+    LOOP
+        PERFORM create_monthly_partition('attendance', partition_month);
+    END LOOP;
+END $$;
+
+INSERT INTO attendance (id, check_in, check_out, employee_id)
+SELECT id, check_in, check_out, employee_id FROM attendance_unpartitioned WHERE check_in IS NOT NULL;
+
+-- Rows without a check-in cannot be placed in a partition; they stay behind for manual review
+DELETE FROM attendance_unpartitioned WHERE check_in IS NOT NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM attendance_unpartitioned) THEN
+        DROP TABLE attendance_unpartitioned;
+    END IF;
+END $$;
+
+-- activities
+
+ALTER TABLE activities RENAME TO activities_unpartitioned;
+ALTER TABLE activities_unpartitioned RENAME CONSTRAINT activities_pkey TO activities_unpartitioned_pkey;
+
+CREATE TABLE activities (
+    id uuid NOT NULL,
+    description varchar(255),
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6),
+    type smallint CHECK (type BETWEEN 0 AND 5),
+    employee_id uuid,
+    CONSTRAINT activities_pkey PRIMARY KEY (id, start_time),
+    CONSTRAINT fk_activities_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE activities_archive (
+    id uuid NOT NULL,
+    description varchar(255),
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6),
+    type smallint,
+    employee_id uuid,
+    CONSTRAINT activities_archive_pkey PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE activities_default PARTITION OF activities DEFAULT;
+
+CREATE INDEX idx_activities_employee_start_time ON activities (employee_id, start_time);
+CREATE INDEX idx_activities_archive_employee_start_time ON activities_archive (employee_id, start_time);
+
+DO $$
+DECLARE
+    partition_month date;
+BEGIN
+    FOR partition_month IN
+        SELECT generate_series(
+                date_trunc('month', LEAST(COALESCE((SELECT min(start_time) FROM activities_unpartitioned), now()), now())),
+                date_trunc('month', now()) + interval '3 months',
+                interval '1 month')::date
+    LOOP
+        PERFORM create_monthly_partition('activities', partition_month);
+    END LOOP;
+END $$;
+
+INSERT INTO activities (id, description, start_time, end_time, type, employee_id)
+SELECT id, description, start_time, end_time, type, employee_id FROM activities_unpartitioned
+WHERE start_time IS NOT NULL;
+
+DELETE FROM activities_unpartitioned WHERE start_time IS NOT NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM activities_unpartitioned) THEN
+        DROP TABLE activities_unpartitioned;
+    END IF;
+END $$;
@@ -0,0 +1,49 @@
+-- Indexes for the repository finders. Lookups already served by a primary key, a unique constraint
+-- (users.username, users.email, organizations.name, payrolls(employee_id, pay_period_start,
+-- pay_period_end), attendance_daily_summaries(employee_id, work_date)) or by the V6 attendance and
+-- activities indexes are not repeated here.
+
+-- organizations: findByEmail
+CREATE INDEX idx_organizations_email ON organizations (email);
+
+-- departments: findByOrganization, findByNameAndOrganization, existsByNameAndOrganization
+CREATE INDEX idx_departments_organization_name ON departments (organization_id, name);
+
+-- employees: every organization scoped read, including the keyset over active employee ids
+CREATE INDEX idx_employees_organization_status_id ON employees (organization_id, status, id);
+CREATE INDEX idx_employees_department ON employees (department_id);
+CREATE INDEX idx_employees_document_id ON employees (document_id);
+CREATE INDEX idx_employees_phone ON employees (phone);
+CREATE INDEX idx_employees_email ON employees (email);
+
+-- users: findByOrganization, findByResetToken; user_roles is read with every user
+CREATE INDEX idx_users_organization ON users (organization_id);
+CREATE INDEX idx_users_reset_token ON users (reset_token) WHERE reset_token IS NOT NULL;
+CREATE INDEX idx_user_roles_user ON user_roles (user_id);
+
+-- activities: findByEmployeeIdAndType
+CREATE INDEX idx_activities_employee_type ON activities (employee_id, type);
+
+-- payrolls: findByStatus, the period range finder and the keyset pages ordered by processed_at
+CREATE INDEX idx_payrolls_status ON payrolls (status);
+CREATE INDEX idx_payrolls_period ON payrolls (pay_period_start, pay_period_end);
+CREATE INDEX idx_payrolls_processed_at_id ON payrolls (processed_at, id);
+
+-- advances: organization lists and keyset pages with an optional status, employee lists, and the
+-- status, request date and repayment date finders
+CREATE INDEX idx_advances_organization_status_request_date ON advances (organization_id, status, request_date);
+CREATE INDEX idx_advances_organization_request_date ON advances (organization_id, request_date);
+CREATE INDEX idx_advances_employee_status ON advances (employee_id, status);
+CREATE INDEX idx_advances_employee_fully_repaid ON advances (employee_id, fully_repaid);
+CREATE INDEX idx_advances_status ON advances (status);
+CREATE INDEX idx_advances_request_date ON advances (request_date);
+CREATE INDEX idx_advances_repayment_date ON advances (repayment_date);
+
+-- batch_jobs: organization scoped finders, findByRequestedBy and the global status, type and date finders
+CREATE INDEX idx_batch_jobs_organization_submitted_at ON batch_jobs (organization_id, submitted_at);
+CREATE INDEX idx_batch_jobs_organization_status ON batch_jobs (organization_id, status);
+CREATE INDEX idx_batch_jobs_organization_job_type ON batch_jobs (organization_id, job_type);
+CREATE INDEX idx_batch_jobs_requested_by ON batch_jobs (requested_by);
+CREATE INDEX idx_batch_jobs_status ON batch_jobs (status);
+CREATE INDEX idx_batch_jobs_job_type ON batch_jobs (job_type);
+CREATE INDEX idx_batch_jobs_submitted_at ON batch_jobs (submitted_at);
@@ -0,0 +1,17 @@
+-- An employee cannot check in twice at the same instant, so (employee_id, check_in) identifies a shift.
+-- Re-importing a badge system file (AttendanceImportService) relies on this to skip the shifts it
+-- already wrote. The index includes the partition key, as unique indexes on partitioned tables must.
+
+-- Earlier imports of the same file left copies behind; keep the most complete one. The worked minutes
+-- ledger counted the copies too, rebuild it for the affected periods (/api/attendance/worked-minutes/rebuild).
+DELETE FROM attendance a
+USING attendance b
+WHERE a.employee_id = b.employee_id
+  AND a.check_in = b.check_in
+  AND (a.check_out IS NOT NULL, COALESCE(a.check_out, '-infinity'), a.id)
+    < (b.check_out IS NOT NULL, COALESCE(b.check_out, '-infinity'), b.id);
+
+CREATE UNIQUE INDEX uk_attendance_employee_check_in ON attendance (employee_id, check_in);
+
+-- Same columns, so the unique index replaces it
+DROP INDEX idx_attendance_employee_check_in;
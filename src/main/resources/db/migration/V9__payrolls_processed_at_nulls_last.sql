@@ -0,0 +1,4 @@
+-- The payroll keyset pages order by processed_at DESC NULLS LAST, id DESC so unprocessed payrolls
+-- (null processed_at) come last; rebuild the index in that order so the pages can still walk it.
+DROP INDEX idx_payrolls_processed_at_id;
+CREATE INDEX idx_payrolls_processed_at_id ON payrolls (processed_at DESC NULLS LAST, id DESC);
@@ -0,0 +1,96 @@
+package com.payroll.payroll_system;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Upgrade path of a database created by ddl-auto=update before the migrations existed. Starting from
+// the schema the baseline entities produced (db/baseline-ddl-auto.sql) with some rows in it, the
+// application has to baseline it at V1, apply every later migration and pass ddl-auto=validate.
+// Runs against the configured PostgreSQL, in a schema of its own that is dropped afterwards.
+class SchemaUpgradeTest {
+
+    private static final String SCHEMA = "schema_upgrade_check";
+
+    private static final String EMPLOYEE_ID = "00000000-0000-0000-0000-000000000001";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createBaselineSchema() throws IOException, SQLException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addLast(new ResourcePropertySource(new ClassPathResource("application.properties")));
+        dataSource = new DriverManagerDataSource(environment.getRequiredProperty("spring.datasource.url"),
+                environment.getProperty("spring.datasource.username"),
+                environment.getProperty("spring.datasource.password"));
+        dataSource.setSchema(SCHEMA);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/baseline-ddl-auto.sql"));
+        }
+
+        jdbcTemplate.update("INSERT INTO organizations (id, name, active) VALUES ('00000000-0000-0000-0000-0000000000a1', 'Upgrade Org', true)");
+        jdbcTemplate.update("INSERT INTO employees (id, first_name, organization_id) " +
+                "VALUES ('" + EMPLOYEE_ID + "', 'Ada', '00000000-0000-0000-0000-0000000000a1')");
+        jdbcTemplate.update("INSERT INTO users (id, username, password, email, enabled, account_non_expired, " +
+                "account_non_locked, credentials_non_expired) VALUES ('00000000-0000-0000-0000-0000000000b1', 'ada', " +
+                "'{noop}secret', 'ada@example.com', true, true, true, true)");
+        // A closed shift from last month and a shift still open
+        jdbcTemplate.update("INSERT INTO attendance (id, employee_id, check_in, check_out) VALUES " +
+                "('00000000-0000-0000-0000-0000000000c1', '" + EMPLOYEE_ID + "', " +
+                "date_trunc('month', now()) - interval '1 month' + interval '8 hours', " +
+                "date_trunc('month', now()) - interval '1 month' + interval '16 hours'), " +
+                "('00000000-0000-0000-0000-0000000000c2', '" + EMPLOYEE_ID + "', now() - interval '1 hour', NULL)");
+        // Payroll generated twice for the same period: the PROCESSED one has to survive the unique constraint
+        jdbcTemplate.update("INSERT INTO payrolls (id, employee_id, pay_period_start, pay_period_end, status, processed_at) VALUES " +
+                "('00000000-0000-0000-0000-0000000000d1', '" + EMPLOYEE_ID + "', '2024-05-01', '2024-05-31', 1, '2024-06-01'), " +
+                "('00000000-0000-0000-0000-0000000000d2', '" + EMPLOYEE_ID + "', '2024-05-01', '2024-05-31', 0, '2024-06-02')");
+    }
+
+    @AfterEach
+    void dropSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void migratesADatabaseCreatedByTheBaselineEntities() {
+        // Starting the application runs Flyway and then Hibernate's schema validation against the schema
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PayrollSystemApplication.class)
+                .profiles("test")
+                .properties("spring.datasource.hikari.schema=" + SCHEMA, "server.port=0")
+                .run()) {
+            Flyway flyway = context.getBean(Flyway.class);
+            MigrationInfo[] applied = flyway.info().applied();
+            assertThat(applied[0].getType().isBaseline()).isTrue();
+            assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+            assertThat(applied).hasSizeGreaterThan(1);
+            assertThat(flyway.info().pending()).isEmpty();
+        }
+
+        assertThat(jdbcTemplate.queryForList("SELECT id::text FROM attendance ORDER BY check_in", String.class))
+                .containsExactly("00000000-0000-0000-0000-0000000000c1", "00000000-0000-0000-0000-0000000000c2");
+        assertThat(jdbcTemplate.queryForList("SELECT id::text FROM payrolls", String.class))
+                .containsExactly("00000000-0000-0000-0000-0000000000d1");
+        assertThat(jdbcTemplate.queryForObject("SELECT token_version FROM users", Integer.class)).isZero();
+    }
+}
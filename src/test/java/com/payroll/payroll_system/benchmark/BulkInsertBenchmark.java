@@ -0,0 +1,110 @@
+package com.payroll.payroll_system.benchmark;
+
+import com.payroll.payroll_system.util.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Rows per second for writing a payroll run, one transaction per run, on a table shaped like payrolls:
+// - one INSERT per row: Hibernate without hibernate.jdbc.batch_size (the default profile)
+// - batches of 50: the prod profile's batch_size, without and with the driver rewriting each batch
+//   into multi-row INSERTs (reWriteBatchedInserts)
+// - rewritten batches of 1000: PayrollWriter with app.payroll.bulk.chunk-size
+// Row count: -Dbenchmark.rows (default 100000).
+@Tag("benchmark")
+class BulkInsertBenchmark {
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE bench_payrolls (id uuid PRIMARY KEY, employee_id uuid NOT NULL, pay_period_start date, " +
+            "pay_period_end date, basic_salary numeric(38, 2), overtime numeric(38, 2), deductions numeric(38, 2), " +
+            "bonus numeric(38, 2), net_salary numeric(38, 2), status smallint, processed_at timestamp(6), " +
+            "UNIQUE (employee_id, pay_period_start, pay_period_end))";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bench_payrolls (id, employee_id, pay_period_start, pay_period_end, basic_salary, overtime, " +
+            "deductions, bonus, net_salary, status, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Strategy(String name, int batchSize, boolean rewriteBatchedInserts) {
+    }
+
+    @Test
+    void insertThroughput() throws SQLException {
+        int rows = BenchmarkDatabase.intProperty("benchmark.rows", 100_000);
+        Strategy[] strategies = {
+                new Strategy("one INSERT per row", 1, false),
+                new Strategy("batches of 50", 50, false),
+                new Strategy("batches of 50, rewritten", 50, true),
+                new Strategy("batches of 1000, rewritten", 1000, true)};
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.start()) {
+            System.out.printf("%n%-28s %10s %10s %12s%n", "strategy", "rows", "seconds", "rows/s");
+            for (Strategy strategy : strategies) {
+                try (Connection connection = database.connect(strategy.rewriteBatchedInserts())) {
+                    recreateTable(connection);
+                    // Warm-up: JIT, prepared statement caching and table files
+                    insert(connection, strategy, rows / 10);
+                    recreateTable(connection);
+
+                    long started = System.nanoTime();
+                    insert(connection, strategy, rows);
+                    double seconds = (System.nanoTime() - started) / 1e9;
+                    System.out.printf("%-28s %10d %10.2f %12.0f%n", strategy.name(), rows, seconds, rows / seconds);
+
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("DROP TABLE bench_payrolls");
+                    }
+                }
+            }
+        }
+    }
+
+    private void recreateTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_payrolls");
+            statement.execute(CREATE_TABLE_SQL);
+        }
+    }
+
+    private void insert(Connection connection, Strategy strategy, int rows) throws SQLException {
+        connection.setAutoCommit(false);
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        LocalDate end = start.plusMonths(1).minusDays(1);
+        BigDecimal salary = new BigDecimal("2500.00");
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < rows; i++) {
+                statement.setObject(1, UuidV7.next());
+                statement.setObject(2, UUID.randomUUID());
+                statement.setObject(3, start);
+                statement.setObject(4, end);
+                statement.setBigDecimal(5, salary);
+                statement.setBigDecimal(6, BigDecimal.ZERO);
+                statement.setBigDecimal(7, BigDecimal.ZERO);
+                statement.setBigDecimal(8, BigDecimal.ZERO);
+                statement.setBigDecimal(9, salary);
+                statement.setInt(10, 0);
+                statement.setObject(11, LocalDateTime.now());
+                if (strategy.batchSize() == 1) {
+                    statement.executeUpdate();
+                } else {
+                    statement.addBatch();
+                    if ((i + 1) % strategy.batchSize() == 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+            if (strategy.batchSize() > 1) {
+                statement.executeBatch();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
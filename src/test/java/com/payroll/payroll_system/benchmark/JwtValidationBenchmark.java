@@ -0,0 +1,100 @@
+package com.payroll.payroll_system.benchmark;
+
+import com.payroll.payroll_system.config.JwtTokenUtil;
+import com.payroll.payroll_system.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Token handling per authenticated request. perRequestParsing is what JwtAuthenticationFilter did
+// before parsing was shared: every getter built a new parser and verified the signature again, five
+// times per request (username, token version, token id, then username and expiry in validateToken).
+// parseOnce is the current filter path: one verification with the shared parser, the rest read from
+// the claims.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final byte[] SECRET = "benchmark-signing-key-of-at-least-256-bits!!".getBytes();
+
+    private JwtTokenUtil jwtTokenUtil;
+    private Key key;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "signingKeys", "k1:" + Base64.getEncoder().encodeToString(SECRET));
+        ReflectionTestUtils.setField(jwtTokenUtil, "activeKeyId", "k1");
+        ReflectionTestUtils.setField(jwtTokenUtil, "rotatedAt", "");
+        ReflectionTestUtils.setField(jwtTokenUtil, "tokenValidity", Duration.ofHours(5));
+        ReflectionTestUtils.invokeMethod(jwtTokenUtil, "init");
+        key = Keys.hmacShaKeyFor(SECRET);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("benchmark.user");
+        user.setRoles(Set.of("ROLE_USER"));
+        token = jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public void perRequestParsing(Blackhole blackhole) {
+        String username = claims().getSubject();
+        blackhole.consume(claims().get("ver", Integer.class));
+        blackhole.consume(claims().getId());
+        boolean valid = claims().getSubject().equals(user.getUsername())
+                && !claims().getExpiration().before(new Date());
+        blackhole.consume(username);
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        Claims claims = jwtTokenUtil.parseToken(token);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(jwtTokenUtil.getTokenVersion(claims));
+        blackhole.consume(claims.getId());
+        blackhole.consume(jwtTokenUtil.validateToken(claims, user));
+    }
+
+    private Claims claims() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(getClass().getName() + "\\.").build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.payroll.payroll_system.benchmark;
+
+import com.payroll.payroll_system.util.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Random (v4) against time-ordered (v7) primary keys on a table shaped like attendance: rows are
+// inserted the way check-ins are ingested (rewritten batches of 500, one commit per batch), then the
+// insert rate and the size of the primary key index are reported. Row count: -Dbenchmark.rows
+// (default 1000000). The gap in insert rate grows once the index no longer fits in shared_buffers.
+@Tag("benchmark")
+class UuidPrimaryKeyBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Test
+    void insertThroughputAndIndexSize() throws SQLException {
+        int rows = BenchmarkDatabase.intProperty("benchmark.rows", 1_000_000);
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.start();
+             Connection connection = database.connect(true)) {
+            System.out.printf("%n%-10s %10s %10s %12s %14s %14s%n",
+                    "ids", "rows", "seconds", "rows/s", "pkey index MB", "table MB");
+            run(connection, "uuid v4", UUID::randomUUID, rows);
+            run(connection, "uuid v7", UuidV7::next, rows);
+        }
+    }
+
+    private void run(Connection connection, String name, Supplier<UUID> ids, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_attendance");
+            statement.execute("CREATE TABLE bench_attendance (id uuid PRIMARY KEY, employee_id uuid NOT NULL, " +
+                    "check_in timestamp(6) NOT NULL, check_out timestamp(6))");
+        }
+
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_attendance (id, employee_id, check_in) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, UUID.randomUUID());
+                insert.setObject(3, LocalDateTime.now());
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        connection.setAutoCommit(true);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery("SELECT pg_relation_size('bench_attendance_pkey'), " +
+                     "pg_relation_size('bench_attendance')")) {
+            sizes.next();
+            System.out.printf("%-10s %10d %10.2f %12.0f %14.1f %14.1f%n", name, rows, seconds, rows / seconds,
+                    sizes.getLong(1) / 1048576.0, sizes.getLong(2) / 1048576.0);
+            statement.execute("DROP TABLE bench_attendance");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.dto.AttendanceImportResultDTO;
+import com.payroll.payroll_system.entity.Attendance;
+import com.payroll.payroll_system.repository.AttendanceRepository;
+import com.payroll.payroll_system.repository.EmployeeRepository;
+import com.payroll.payroll_system.service.AttendanceImportService.ImportedAttendance;
+import com.payroll.payroll_system.service.AttendanceImportService.StoredShiftClose;
+import com.payroll.payroll_system.service.AttendanceImportService.WorkDay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// CSV parsing, IN/OUT pairing and re-import without a database: the attendance table is simulated by
+// a set of (employee, check-in) keys, as the unique index does in PostgreSQL.
+class AttendanceImportServiceTest {
+
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+    private static final UUID ADA = UUID.randomUUID();
+    private static final UUID GRACE = UUID.randomUUID();
+
+    private AttendanceImportService importService;
+    private JdbcTemplate jdbcTemplate;
+    private OpenShiftIndex openShiftIndex;
+    private AttendanceRepository attendanceRepository;
+    private PlatformTransactionManager transactionManager;
+    private final Set<String> storedShifts = new HashSet<>();
+    private final List<ImportedAttendance> written = new ArrayList<>();
+    // Chunks written before the database goes away
+    private int chunksBeforeFailure = Integer.MAX_VALUE;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        when(employeeRepository.findIdentifiersByOrganizationId(ORGANIZATION_ID)).thenReturn(List.of(
+                new Object[]{ADA, "DOC-1", "0788000001"},
+                new Object[]{GRACE, null, "0788000002"}));
+        jdbcTemplate = mock(JdbcTemplate.class);
+        openShiftIndex = mock(OpenShiftIndex.class);
+        attendanceRepository = mock(AttendanceRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        importService = spy(new AttendanceImportService());
+        ReflectionTestUtils.setField(importService, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(importService, "attendanceRepository", attendanceRepository);
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "openShiftIndex", openShiftIndex);
+        ReflectionTestUtils.setField(importService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 10);
+
+        doAnswer(invocation -> {
+            if (chunksBeforeFailure-- == 0) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            List<ImportedAttendance> inserted = new ArrayList<>();
+            for (ImportedAttendance attendance : invocation.<List<ImportedAttendance>>getArgument(0)) {
+                if (storedShifts.add(attendance.employeeId() + "|" + attendance.checkIn())) {
+                    inserted.add(attendance);
+                }
+            }
+            written.addAll(inserted);
+            return inserted;
+        }).when(importService).insertNew(any());
+    }
+
+    @Test
+    void splitsQuotedAndBlankFields() {
+        assertThat(AttendanceImportService.split("DOC-1,2026-03-02T08:00,IN"))
+                .containsExactly("DOC-1", "2026-03-02T08:00", "IN");
+        assertThat(AttendanceImportService.split("\"Doe, Ada\",\"say \"\"hi\"\"\", IN "))
+                .containsExactly("Doe, Ada", "say \"hi\"", "IN");
+        assertThat(AttendanceImportService.split(",,")).containsExactly("", "", "");
+        assertThat(AttendanceImportService.split("DOC-1,")).containsExactly("DOC-1", "");
+    }
+
+    @Test
+    void pairsCheckInsWithCheckOuts() throws Exception {
+        AttendanceImportResultDTO result = importCsv("""
+                identifier,timestamp,type
+                DOC-1,2026-03-02T08:00,IN
+                0788000002,2026-03-02T09:00,IN
+                DOC-1,2026-03-02T16:30,OUT
+                0788000002,2026-03-02T17:00,OUT
+                """);
+
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getAttendanceCreated()).isEqualTo(2);
+        assertThat(result.getUnpairedCheckIns()).isZero();
+        assertThat(result.getErrorCount()).isZero();
+        assertThat(written).extracting(ImportedAttendance::checkOut)
+                .containsExactlyInAnyOrder(LocalDateTime.parse("2026-03-02T16:30"), LocalDateTime.parse("2026-03-02T17:00"));
+        assertThat(ledgerWrites()).containsOnly(
+                Map.entry(new WorkDay(ADA, LocalDate.parse("2026-03-02")), 510L),
+                Map.entry(new WorkDay(GRACE, LocalDate.parse("2026-03-02")), 480L));
+    }
+
+    @Test
+    void keepsUnpairedCheckInsAndReportsBadRows() throws Exception {
+        AttendanceImportResultDTO result = importCsv("""
+                identifier,type,timestamp
+                DOC-1,IN,2026-03-02T08:00
+                DOC-1,IN,2026-03-03T08:00
+
+                0788000002,OUT,2026-03-03T17:00
+                UNKNOWN,IN,2026-03-03T08:00
+                DOC-1,BREAK,2026-03-03T12:00
+                DOC-1,IN,not-a-date
+                """);
+
+        assertThat(result.getRowsRead()).isEqualTo(6);
+        assertThat(result.getErrorCount()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(AttendanceImportResultDTO.RowError::getLine)
+                .containsExactly(5L, 6L, 7L, 8L);
+        // The forgotten check-out of the 2nd and the shift still open at the end of the file
+        assertThat(result.getUnpairedCheckIns()).isEqualTo(2);
+        assertThat(written).allMatch(attendance -> attendance.checkOut() == null);
+        ImportedAttendance open = written.stream()
+                .filter(attendance -> attendance.checkIn().equals(LocalDateTime.parse("2026-03-03T08:00")))
+                .findFirst().orElseThrow();
+        verify(openShiftIndex).openedAfterCommit(ADA, open.id(), open.checkIn());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    void reimportingTheSameFileSkipsStoredShifts() throws Exception {
+        String file = """
+                identifier,timestamp,type
+                DOC-1,2026-03-02T08:00,IN
+                DOC-1,2026-03-02T16:00,OUT
+                DOC-1,2026-03-03T08:00,IN
+                """;
+        importCsv(file);
+        AttendanceImportResultDTO again = importCsv(file);
+
+        assertThat(written).hasSize(2);
+        assertThat(again.getAttendanceCreated()).isZero();
+        assertThat(again.getAlreadyImported()).isEqualTo(2);
+        // Only the first import adds worked minutes and registers the open shift
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verify(openShiftIndex, times(1)).openedAfterCommit(eq(ADA), any(), any());
+    }
+
+    @Test
+    void keepsTheCommittedChunksOfAFailedImport() throws Exception {
+        String file = """
+                identifier,timestamp,type
+                DOC-1,2026-03-02T08:00,IN
+                DOC-1,2026-03-02T16:00,OUT
+                DOC-1,2026-03-03T08:00,IN
+                DOC-1,2026-03-03T16:00,OUT
+                DOC-1,2026-03-04T08:00,IN
+                DOC-1,2026-03-04T16:00,OUT
+                """;
+        chunksBeforeFailure = 1;
+
+        assertThatThrownBy(() -> importCsv(file)).isInstanceOf(DataAccessResourceFailureException.class);
+        // The first chunk and its worked minutes are committed, the failed one is rolled back
+        assertThat(written).hasSize(2);
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        chunksBeforeFailure = Integer.MAX_VALUE;
+        AttendanceImportResultDTO again = importCsv(file);
+
+        assertThat(again.getAlreadyImported()).isEqualTo(2);
+        assertThat(again.getAttendanceCreated()).isEqualTo(1);
+        assertThat(written).extracting(ImportedAttendance::checkIn).doesNotHaveDuplicates().hasSize(3);
+    }
+
+    @Test
+    void closesAShiftCheckedInBeforeTheFile() throws Exception {
+        // Checked in at a terminal (or in yesterday's file) before the night shift; not known to the index
+        Attendance nightShift = new Attendance();
+        nightShift.setId(UUID.randomUUID());
+        nightShift.setCheckIn(LocalDateTime.parse("2026-03-01T22:00"));
+        when(attendanceRepository.findOpenShiftByEmployeeId(eq(ADA), eq(ORGANIZATION_ID), any()))
+                .thenReturn(List.of(nightShift))
+                .thenReturn(List.of());
+        List<StoredShiftClose> closed = new ArrayList<>();
+        doAnswer(invocation -> {
+            closed.addAll(invocation.getArgument(0));
+            return List.copyOf(invocation.<List<StoredShiftClose>>getArgument(0));
+        }).when(importService).closeOpenShifts(any());
+        String file = """
+                identifier,timestamp,type
+                DOC-1,2026-03-02T06:00,OUT
+                DOC-1,2026-03-02T08:00,IN
+                DOC-1,2026-03-02T16:00,OUT
+                """;
+
+        AttendanceImportResultDTO result = importCsv(file);
+
+        assertThat(result.getErrorCount()).isZero();
+        assertThat(result.getStoredShiftsClosed()).isEqualTo(1);
+        assertThat(result.getAttendanceCreated()).isEqualTo(1);
+        assertThat(closed).containsExactly(new StoredShiftClose(nightShift.getId(), ADA,
+                nightShift.getCheckIn(), LocalDateTime.parse("2026-03-02T06:00")));
+        verify(openShiftIndex).closedAfterCommit(ADA, nightShift.getId());
+        assertThat(ledgerWrites()).containsOnly(
+                Map.entry(new WorkDay(ADA, LocalDate.parse("2026-03-01")), 480L),
+                Map.entry(new WorkDay(ADA, LocalDate.parse("2026-03-02")), 480L));
+
+        // Importing the file again finds the shift closed with the same check-out
+        when(attendanceRepository.existsByEmployeeIdAndCheckOut(ADA, LocalDateTime.parse("2026-03-02T06:00")))
+                .thenReturn(true);
+        AttendanceImportResultDTO again = importCsv(file);
+
+        assertThat(again.getErrorCount()).isZero();
+        assertThat(again.getStoredShiftsClosed()).isZero();
+        assertThat(again.getAlreadyImported()).isEqualTo(2);
+        assertThat(closed).hasSize(1);
+    }
+
+    @Test
+    void rejectsFilesWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> importCsv("identifier,timestamp\nDOC-1,2026-03-02T08:00\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Missing column type");
+    }
+
+    private AttendanceImportResultDTO importCsv(String csv) throws Exception {
+        return importService.importCsv(ORGANIZATION_ID, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<WorkDay, Long> ledgerWrites() {
+        ArgumentCaptor<Collection> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), entries.capture(), anyInt(), any());
+        Map<WorkDay, Long> minutes = new HashMap<>();
+        for (Object entry : entries.getValue()) {
+            Map.Entry<WorkDay, Long> workDay = (Map.Entry<WorkDay, Long>) entry;
+            minutes.put(workDay.getKey(), workDay.getValue());
+        }
+        return minutes;
+    }
+}
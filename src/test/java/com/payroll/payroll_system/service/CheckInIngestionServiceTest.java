@@ -0,0 +1,233 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.controller.AttendanceController;
+import com.payroll.payroll_system.dto.AttendanceDTO;
+import com.payroll.payroll_system.service.CheckInWriteAheadLog.Tap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Durability of the check-in path. The attendance table is simulated by a map keyed by id, which
+// behaves like the INSERT ... ON CONFLICT DO NOTHING the service issues: a tap written twice is stored
+// once and reported as skipped.
+class CheckInIngestionServiceTest {
+
+    @TempDir
+    Path walDirectory;
+
+    private final Map<UUID, Tap> attendanceTable = new ConcurrentHashMap<>();
+    private final List<UUID> insertAttempts = new ArrayList<>();
+    private final List<CheckInWriteAheadLog> logs = new ArrayList<>();
+    private final UUID unknownEmployeeId = UUID.randomUUID();
+    private volatile boolean databaseDown;
+    private JdbcTemplate jdbcTemplate;
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        when(employeeService.employeeExists(any())).thenAnswer(invocation -> !unknownEmployeeId.equals(invocation.getArgument(0)));
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            if (databaseDown) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            Collection<Tap> taps = invocation.getArgument(1);
+            int[] counts = new int[taps.size()];
+            int i = 0;
+            for (Tap tap : taps) {
+                insertAttempts.add(tap.id());
+                counts[i++] = attendanceTable.putIfAbsent(tap.id(), tap) == null ? 1 : 0;
+            }
+            return new int[][]{counts};
+        });
+    }
+
+    @AfterEach
+    void closeLogs() throws IOException {
+        for (CheckInWriteAheadLog log : logs) {
+            log.close();
+        }
+    }
+
+    @Test
+    void writesAcknowledgedTapsAndTrimsTheLog() throws IOException {
+        CheckInIngestionService service = start(100);
+        UUID employeeId = UUID.randomUUID();
+
+        AttendanceDTO acknowledged = service.checkIn(employeeId).orElseThrow();
+        assertThat(attendanceTable).isEmpty();
+        assertThat(Files.size(onlySegment())).isPositive();
+
+        service.flush();
+
+        assertThat(attendanceTable).containsOnlyKeys(acknowledged.getId());
+        assertThat(Files.size(onlySegment())).isZero();
+    }
+
+    @Test
+    void replaysUnwrittenTapsExactlyOnceAfterACrash() throws IOException {
+        CheckInIngestionService service = start(100);
+        UUID first = service.checkIn(UUID.randomUUID()).orElseThrow().getId();
+        UUID second = service.checkIn(UUID.randomUUID()).orElseThrow().getId();
+        UUID third = service.checkIn(UUID.randomUUID()).orElseThrow().getId();
+        // The first tap reached the database, but the process died before the log was trimmed
+        attendanceTable.put(first, new Tap(1, first, UUID.randomUUID(), null));
+        crash();
+
+        // Starting does not touch the database; the first flush replays
+        CheckInIngestionService restarted = start(100);
+        assertThat(insertAttempts).isEmpty();
+        restarted.flush();
+
+        assertThat(attendanceTable).containsOnlyKeys(first, second, third);
+        assertThat(insertAttempts).containsExactlyInAnyOrder(first, second, third);
+        assertThat(Files.size(onlySegment())).isZero();
+
+        // A second restart finds nothing left to replay
+        crash();
+        start(100).flush();
+        assertThat(insertAttempts).hasSize(3);
+    }
+
+    @Test
+    void retriesTheReplayUntilTheDatabaseIsBack() throws IOException {
+        CheckInIngestionService service = start(100);
+        UUID recovered = service.checkIn(UUID.randomUUID()).orElseThrow().getId();
+        crash();
+
+        databaseDown = true;
+        CheckInIngestionService restarted = start(100);
+        UUID accepted = restarted.checkIn(UUID.randomUUID()).orElseThrow().getId();
+        restarted.flush();
+        restarted.flush();
+        assertThat(attendanceTable).isEmpty();
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            assertThat(files.toList()).hasSize(2);
+        }
+
+        databaseDown = false;
+        restarted.flush();
+        assertThat(attendanceTable).containsOnlyKeys(recovered, accepted);
+        assertThat(Files.size(onlySegment())).isZero();
+    }
+
+    @Test
+    void acknowledgesADoubleTapOnce() {
+        CheckInIngestionService service = start(100);
+        UUID employeeId = UUID.randomUUID();
+
+        AttendanceDTO first = service.checkIn(employeeId).orElseThrow();
+        AttendanceDTO second = service.checkIn(employeeId).orElseThrow();
+        AttendanceDTO otherEmployee = service.checkIn(UUID.randomUUID()).orElseThrow();
+        service.flush();
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getCheckIn()).isEqualTo(first.getCheckIn());
+        assertThat(attendanceTable).containsOnlyKeys(first.getId(), otherEmployee.getId());
+    }
+
+    @Test
+    void answersNotFoundForAnUnknownEmployee() {
+        CheckInIngestionService service = start(100);
+        AttendanceController controller = new AttendanceController();
+        ReflectionTestUtils.setField(controller, "checkInIngestionService", service);
+
+        assertThat(controller.checkIn(unknownEmployeeId).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        service.flush();
+        assertThat(insertAttempts).isEmpty();
+    }
+
+    @Test
+    void writesAQueuedCheckInBeforeItsCheckOut() {
+        CheckInIngestionService service = start(100);
+        UUID attendanceId = service.checkIn(UUID.randomUUID()).orElseThrow().getId();
+
+        // Unrelated ids do not force a flush
+        service.flushUnwrittenCheckIn(UUID.randomUUID());
+        assertThat(attendanceTable).isEmpty();
+
+        service.flushUnwrittenCheckIn(attendanceId);
+        assertThat(attendanceTable).containsOnlyKeys(attendanceId);
+    }
+
+    @Test
+    void rejectsTapsWhileTheQueueIsFull() {
+        CheckInIngestionService service = start(1);
+        service.checkIn(UUID.randomUUID());
+
+        assertThatThrownBy(() -> service.checkIn(UUID.randomUUID())).isInstanceOf(RejectedExecutionException.class);
+
+        AttendanceController controller = new AttendanceController();
+        ReflectionTestUtils.setField(controller, "checkInIngestionService", service);
+        ResponseEntity<AttendanceDTO> response = controller.checkIn(UUID.randomUUID());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        // Accepted again once the flush drained the queue
+        service.flush();
+        assertThat(controller.checkIn(UUID.randomUUID()).getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    private CheckInIngestionService start(int queueCapacity) {
+        CheckInWriteAheadLog log = new CheckInWriteAheadLog();
+        ReflectionTestUtils.setField(log, "directory", walDirectory);
+        ReflectionTestUtils.setField(log, "maxSegmentBytes", 16L * 1024 * 1024);
+        logs.add(log);
+
+        CheckInIngestionService service = new CheckInIngestionService();
+        ReflectionTestUtils.setField(service, "writeAheadLog", log);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "openShiftIndex", mock(OpenShiftIndex.class));
+        ReflectionTestUtils.setField(service, "employeeService", employeeService);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "dedupeWindow", Duration.ofSeconds(60));
+        service.init();
+        return service;
+    }
+
+    // Stops the running instance without flushing, as a killed process would
+    private void crash() throws IOException {
+        CheckInWriteAheadLog log = logs.remove(logs.size() - 1);
+        log.close();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            List<Path> segments = files.toList();
+            assertThat(segments).hasSize(1);
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.service.CheckInWriteAheadLog.Tap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckInWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<CheckInWriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeLogs() throws IOException {
+        for (CheckInWriteAheadLog log : opened) {
+            log.close();
+        }
+    }
+
+    @Test
+    void recoversSyncedTapsAfterACrash() throws IOException {
+        CheckInWriteAheadLog log = create(1024);
+        log.open();
+        UUID employeeId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        LocalDateTime checkIn = LocalDateTime.parse("2026-03-02T08:00:00.123");
+        log.sync(log.append(first, employeeId, checkIn));
+        log.sync(log.append(second, employeeId, checkIn.plusSeconds(1)));
+        // Nothing was written to the database before the process died
+        crash(log);
+
+        List<Tap> recovered = create(1024).open();
+
+        assertThat(recovered).containsExactly(
+                new Tap(1, first, employeeId, checkIn),
+                new Tap(2, second, employeeId, checkIn.plusSeconds(1)));
+    }
+
+    @Test
+    void skipsAHalfWrittenLastRecord() throws IOException {
+        CheckInWriteAheadLog log = create(1024);
+        log.open();
+        UUID id = UUID.randomUUID();
+        UUID employeeId = UUID.randomUUID();
+        log.sync(log.append(id, employeeId, LocalDateTime.parse("2026-03-02T08:00")));
+        crash(log);
+        Files.writeString(segments().get(0), "2," + UUID.randomUUID() + ",", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        assertThat(create(1024).open()).extracting(Tap::id).containsExactly(id);
+    }
+
+    @Test
+    void keepsRecoveredTapsUntilTheyAreWritten() throws IOException {
+        CheckInWriteAheadLog log = create(1024);
+        log.open();
+        UUID recoveredId = UUID.randomUUID();
+        log.sync(log.append(recoveredId, UUID.randomUUID(), LocalDateTime.now()));
+        crash(log);
+
+        // The replay fails (database down) and a new tap is accepted meanwhile; then the process dies again
+        CheckInWriteAheadLog restarted = create(1024);
+        List<Tap> recovered = restarted.open();
+        assertThat(recovered).extracting(Tap::id).containsExactly(recoveredId);
+        UUID newId = UUID.randomUUID();
+        long newSequence = restarted.append(newId, UUID.randomUUID(), LocalDateTime.now());
+        restarted.sync(newSequence);
+        assertThat(newSequence).isGreaterThan(recovered.get(0).sequence());
+        crash(restarted);
+
+        CheckInWriteAheadLog again = create(1024);
+        List<Tap> both = again.open();
+        assertThat(both).extracting(Tap::id).containsExactly(recoveredId, newId);
+
+        again.markWritten(both.get(1).sequence());
+        assertThat(segments()).hasSize(1);
+        assertThat(Files.size(segments().get(0))).isZero();
+        assertThat(recordsOnDisk()).isZero();
+    }
+
+    @Test
+    void restartingAnIdleLogLeavesOneEmptySegment() throws IOException {
+        CheckInWriteAheadLog log = create(1024);
+        log.open();
+        crash(log);
+
+        assertThat(create(1024).open()).isEmpty();
+        assertThat(segments()).hasSize(1);
+        assertThat(Files.size(segments().get(0))).isZero();
+    }
+
+    @Test
+    void deletesSegmentsOnceTheirTapsAreWritten() throws IOException {
+        // Small segments, so every second record rolls over to a new segment
+        CheckInWriteAheadLog log = create(150);
+        log.open();
+        List<Long> sequences = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            long sequence = log.append(UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now());
+            log.sync(sequence);
+            sequences.add(sequence);
+            if (i % 2 == 1) {
+                // Seals the full segment without its taps being written yet
+                log.markWritten(0);
+            }
+        }
+        assertThat(segments()).hasSize(3);
+
+        log.markWritten(sequences.get(1));
+        assertThat(segments()).hasSize(2);
+        assertThat(recordsOnDisk()).isEqualTo(2);
+
+        log.markWritten(sequences.get(3));
+        assertThat(segments()).hasSize(1);
+        assertThat(Files.size(segments().get(0))).isZero();
+    }
+
+    private CheckInWriteAheadLog create(long maxSegmentBytes) {
+        CheckInWriteAheadLog log = new CheckInWriteAheadLog();
+        ReflectionTestUtils.setField(log, "directory", directory);
+        ReflectionTestUtils.setField(log, "maxSegmentBytes", maxSegmentBytes);
+        opened.add(log);
+        return log;
+    }
+
+    // Leaves the segments on disk exactly as a killed process would after its last fsync
+    private void crash(CheckInWriteAheadLog log) throws IOException {
+        opened.remove(log);
+        log.close();
+    }
+
+    private long recordsOnDisk() throws IOException {
+        long records = 0;
+        for (Path segment : segments()) {
+            records += Files.readAllLines(segment, StandardCharsets.UTF_8).size();
+        }
+        return records;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
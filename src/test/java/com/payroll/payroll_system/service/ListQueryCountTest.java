@@ -0,0 +1,206 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.constant.EmployeeStatus;
+import com.payroll.payroll_system.constant.PayrollStatus;
+import com.payroll.payroll_system.dto.CursorPage;
+import com.payroll.payroll_system.dto.PayrollDTO;
+import com.payroll.payroll_system.entity.Advance;
+import com.payroll.payroll_system.entity.Attendance;
+import com.payroll.payroll_system.entity.Department;
+import com.payroll.payroll_system.entity.Employee;
+import com.payroll.payroll_system.entity.Organization;
+import com.payroll.payroll_system.entity.Payroll;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the list read paths against N+1 lazy loads: each list must come back in a fixed number of
+// statements however many employees, departments and rows the organization has
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({PayrollService.class, PayrollWriter.class, AttendanceService.class, OpenShiftIndex.class, AdvanceService.class,
+        EmployeeService.class, OrganizationService.class})
+class ListQueryCountTest {
+
+    private static final int EMPLOYEES = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AdvanceService advanceService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    private Statistics statistics;
+
+    private Organization organization;
+
+    private Employee firstEmployee;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        organization = new Organization();
+        organization.setName("Query Count Org");
+        organization.setActive(true);
+        entityManager.persist(organization);
+
+        Department[] departments = {department("Finance", "FIN"), department("Operations", "OPS"), department("Sales", "SAL")};
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("First" + i);
+            employee.setLastName("Last" + i);
+            employee.setEmail("employee" + i + "@example.com");
+            employee.setBaseSalary(new BigDecimal("1000.00"));
+            employee.setStatus(EmployeeStatus.ACTIVE);
+            employee.setDepartment(departments[i % departments.length]);
+            employee.setOrganization(organization);
+            entityManager.persist(employee);
+            if (firstEmployee == null) {
+                firstEmployee = employee;
+            }
+
+            Payroll payroll = new Payroll();
+            payroll.setEmployee(employee);
+            payroll.setPayPeriodStart(LocalDate.of(2024, 1, 1));
+            payroll.setPayPeriodEnd(LocalDate.of(2024, 1, 31));
+            payroll.setBasicSalary(new BigDecimal("1000.00"));
+            payroll.setOvertime(BigDecimal.ZERO);
+            payroll.setDeductions(BigDecimal.ZERO);
+            payroll.setBonus(BigDecimal.ZERO);
+            payroll.setNetSalary(new BigDecimal("1000.00"));
+            payroll.setStatus(PayrollStatus.DRAFT);
+            // Some payrolls were never processed, so the keyset pages have to page past null sort keys
+            payroll.setProcessedAt(i % 3 == 0 ? null : now.minusMinutes(i));
+            entityManager.persist(payroll);
+
+            for (int day = 0; day < 3; day++) {
+                Attendance attendance = new Attendance();
+                attendance.setEmployee(employee);
+                attendance.setCheckIn(now.minusDays(day).minusHours(8));
+                attendance.setCheckOut(now.minusDays(day));
+                entityManager.persist(attendance);
+            }
+
+            Advance advance = new Advance();
+            advance.setEmployee(employee);
+            advance.setOrganization(organization);
+            advance.setAmount(new BigDecimal("100.00"));
+            advance.setReason("Advance " + i);
+            advance.setStatus("PENDING");
+            advance.setRequestDate(now.minusDays(i));
+            advance.setRepaymentDate(now.plusMonths(1));
+            entityManager.persist(advance);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void payrollsByOrganizationUseOneStatement() {
+        assertThat(payrollService.getPayrollsByOrganization(organization.getId())).hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void payrollPageUsesOneStatement() {
+        assertThat(payrollService.getPayrollPageByOrganization(organization.getId(), null, 50).getItems()).hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void payrollPagesVisitEveryPayrollOnceIncludingUnprocessed() {
+        List<UUID> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<PayrollDTO> page = payrollService.getPayrollPageByOrganization(organization.getId(), cursor, 2);
+            page.getItems().forEach(payroll -> visited.add(payroll.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(visited).hasSize(EMPLOYEES).doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo((EMPLOYEES + 1) / 2);
+    }
+
+    @Test
+    void allPayrollsUseOneStatement() {
+        assertThat(payrollService.getAllPayrolls()).hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void attendanceByEmployeeUsesOneStatement() {
+        assertThat(attendanceService.getAttendanceByEmployeeId(firstEmployee.getId())).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void attendancePageUsesOneStatement() {
+        assertThat(attendanceService.getAttendancePageByOrganization(organization.getId(), null, 50).getItems())
+                .hasSize(EMPLOYEES * 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void advancesByOrganizationUseOrganizationLookupAndOneStatement() {
+        assertThat(advanceService.getAdvancesByOrganization(organization.getId())).hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void advancePageUsesOneStatement() {
+        assertThat(advanceService.getAdvancePageByOrganization(organization.getId(), null, null, 50).getItems())
+                .hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void employeesByOrganizationUseOrganizationLookupAndOneStatement() {
+        assertThat(employeeService.getEmployeesByOrganization(organization.getId())).hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Department department(String name, String code) {
+        Department department = new Department();
+        department.setName(name);
+        department.setCode(code);
+        department.setOrganization(organization);
+        return entityManager.persist(department);
+    }
+}
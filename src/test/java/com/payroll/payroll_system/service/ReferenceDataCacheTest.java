@@ -0,0 +1,168 @@
+package com.payroll.payroll_system.service;
+
+import com.payroll.payroll_system.config.CacheConfig;
+import com.payroll.payroll_system.constant.EmployeeStatus;
+import com.payroll.payroll_system.dto.DepartmentDTO;
+import com.payroll.payroll_system.dto.EmployeeDTO;
+import com.payroll.payroll_system.entity.Department;
+import com.payroll.payroll_system.entity.Employee;
+import com.payroll.payroll_system.entity.Organization;
+import com.payroll.payroll_system.repository.DepartmentRepository;
+import com.payroll.payroll_system.repository.EmployeeRepository;
+import com.payroll.payroll_system.repository.OrganizationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the caches on the in-process fallback (no spring.data.redis.host). The test is not transactional
+// because cache writes are only applied once the service transaction commits.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheConfig.class, EmployeeService.class, DepartmentService.class, OrganizationService.class})
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Organization organization;
+
+    private Department department;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        organization = organization("Cache Org");
+        department = department(organization, "Finance");
+        employee = employee(organization, department, "Ada");
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+        organizationRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        List<EmployeeDTO> first = employeeService.getEmployeesByOrganization(organization.getId());
+        List<DepartmentDTO> departments = departmentService.getDepartmentsByOrganization(organization.getId());
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+
+        assertThat(employeeService.getEmployeesByOrganization(organization.getId())).isEqualTo(first);
+        assertThat(departmentService.getDepartmentsByOrganization(organization.getId())).isEqualTo(departments);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstRead);
+    }
+
+    @Test
+    void entriesAreKeptPerOrganization() {
+        Organization other = organization("Other Org");
+        employee(other, department(other, "Sales"), "Grace");
+
+        assertThat(employeeService.getEmployeesByOrganization(organization.getId()))
+                .extracting(EmployeeDTO::getFirstName).containsExactly("Ada");
+        assertThat(employeeService.getEmployeesByOrganization(other.getId()))
+                .extracting(EmployeeDTO::getFirstName).containsExactly("Grace");
+        assertThat(employeeService.getEmployeeByIdAndOrganization(employee.getId(), other.getId())).isEmpty();
+    }
+
+    @Test
+    void employeeUpdateEvictsTheOrganizationEntries() {
+        employeeService.getEmployeesByOrganization(organization.getId());
+        employeeService.getEmployeeByIdAndOrganization(employee.getId(), organization.getId());
+
+        EmployeeDTO update = new EmployeeDTO();
+        update.setFirstName("Augusta");
+        update.setLastName("Lovelace");
+        employeeService.updateEmployeeForOrganization(employee.getId(), update, organization.getId());
+
+        assertThat(employeeService.getEmployeesByOrganization(organization.getId()))
+                .extracting(EmployeeDTO::getFirstName).containsExactly("Augusta");
+        assertThat(employeeService.getEmployeeByIdAndOrganization(employee.getId(), organization.getId()))
+                .get().extracting(EmployeeDTO::getFirstName).isEqualTo("Augusta");
+    }
+
+    @Test
+    void departmentRenameEvictsCachedEmployees() {
+        employeeService.getEmployeeByIdAndOrganization(employee.getId(), organization.getId());
+
+        departmentService.updateDepartmentForOrganization(department.getId(),
+                new DepartmentDTO(null, "Accounting", "ACC", null, null), organization.getId());
+
+        assertThat(employeeService.getEmployeeByIdAndOrganization(employee.getId(), organization.getId()))
+                .get().extracting(EmployeeDTO::getDepartmentName).isEqualTo("Accounting");
+        assertThat(departmentService.getDepartmentsByOrganization(organization.getId()))
+                .extracting(DepartmentDTO::getName).containsExactly("Accounting");
+    }
+
+    private Organization organization(String name) {
+        Organization organization = new Organization();
+        organization.setName(name);
+        organization.setActive(true);
+        return organizationRepository.save(organization);
+    }
+
+    private Department department(Organization organization, String name) {
+        Department department = new Department();
+        department.setName(name);
+        department.setCode(name.substring(0, 3).toUpperCase());
+        department.setOrganization(organization);
+        return departmentRepository.save(department);
+    }
+
+    private Employee employee(Organization organization, Department department, String firstName) {
+        Employee employee = new Employee();
+        employee.setFirstName(firstName);
+        employee.setLastName("Tester");
+        employee.setEmail(firstName.toLowerCase() + "@example.com");
+        employee.setBaseSalary(new BigDecimal("1000.00"));
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        employee.setDepartment(department);
+        employee.setOrganization(organization);
+        return employeeRepository.save(employee);
+    }
+}
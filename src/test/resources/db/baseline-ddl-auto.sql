@@ -0,0 +1,219 @@
+-- Schema of a database created with ddl-auto=update from the entities of the commit before the first
+-- migration, as Hibernate issued it (table and foreign key DDL from its schema export, unique
+-- constraints added the way update mode adds them). SchemaUpgradeTest migrates it to the current
+-- version. Do not edit: it stands for databases already in production.
+
+    create table activities (
+        type smallint check (type between 0 and 5),
+        end_time timestamp(6),
+        start_time timestamp(6),
+        employee_id uuid,
+        id uuid not null,
+        description varchar(255),
+        primary key (id)
+    );
+
+    create table advances (
+        amount numeric(38,2) not null,
+        fully_repaid boolean not null,
+        repaid_amount numeric(38,2),
+        approval_date timestamp(6),
+        created_at timestamp(6),
+        repayment_date timestamp(6) not null,
+        request_date timestamp(6) not null,
+        updated_at timestamp(6),
+        approved_by uuid,
+        employee_id uuid not null,
+        id uuid not null,
+        organization_id uuid not null,
+        reason varchar(255) not null,
+        rejection_reason varchar(255),
+        status varchar(255),
+        primary key (id)
+    );
+
+    create table attendance (
+        check_in timestamp(6),
+        check_out timestamp(6),
+        employee_id uuid,
+        id uuid not null,
+        primary key (id)
+    );
+
+    create table batch_jobs (
+        failed_requests integer,
+        processed_requests integer,
+        successful_requests integer,
+        total_requests integer not null,
+        completed_at timestamp(6),
+        created_at timestamp(6),
+        started_at timestamp(6),
+        submitted_at timestamp(6) not null,
+        updated_at timestamp(6),
+        id uuid not null,
+        organization_id uuid,
+        requested_by uuid,
+        callback_url varchar(255),
+        description varchar(255),
+        job_type varchar(255) not null,
+        result_details TEXT,
+        status varchar(255) not null,
+        primary key (id)
+    );
+
+    create table departments (
+        id uuid not null,
+        organization_id uuid,
+        code varchar(255),
+        name varchar(255),
+        primary key (id)
+    );
+
+    create table employees (
+        base_salary numeric(38,2),
+        date_of_joining date,
+        status smallint check (status between 0 and 1),
+        department_id uuid,
+        id uuid not null,
+        organization_id uuid,
+        document_id varchar(255),
+        email varchar(255),
+        first_name varchar(255),
+        last_name varchar(255),
+        phone varchar(255),
+        primary key (id)
+    );
+
+    create table organizations (
+        active boolean not null,
+        created_at timestamp(6),
+        updated_at timestamp(6),
+        id uuid not null,
+        address varchar(255),
+        email varchar(255),
+        name varchar(255) not null,
+        phone varchar(255),
+        tax_id varchar(255),
+        website varchar(255),
+        primary key (id)
+    );
+
+    create table payrolls (
+        basic_salary numeric(38,2),
+        bonus numeric(38,2),
+        deductions numeric(38,2),
+        net_salary numeric(38,2),
+        overtime numeric(38,2),
+        pay_period_end date,
+        pay_period_start date,
+        status smallint check (status between 0 and 3),
+        processed_at timestamp(6),
+        employee_id uuid,
+        id uuid not null,
+        primary key (id)
+    );
+
+    create table user_roles (
+        user_id uuid not null,
+        role varchar(255)
+    );
+
+    create table users (
+        account_non_expired boolean not null,
+        account_non_locked boolean not null,
+        credentials_non_expired boolean not null,
+        enabled boolean not null,
+        created_at timestamp(6),
+        last_login_at timestamp(6),
+        reset_token_expiry timestamp(6),
+        updated_at timestamp(6),
+        employee_id uuid,
+        id uuid not null,
+        organization_id uuid,
+        email varchar(255) not null,
+        first_name varchar(255),
+        last_name varchar(255),
+        password varchar(255) not null,
+        reset_token varchar(255),
+        username varchar(255) not null,
+        primary key (id)
+    );
+
+    alter table if exists organizations 
+       add constraint UKp9pbw3flq9hkay8hdx3ypsldy unique (name);
+
+    alter table if exists users 
+       add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+    alter table if exists users 
+       add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+    alter table if exists activities 
+       add constraint FKolqfxude3ki5reapiyat5fc98 
+       foreign key (employee_id) 
+       references employees;
+
+    alter table if exists advances 
+       add constraint FKoiv4rce35f40bn5hb15x9c4q9 
+       foreign key (approved_by) 
+       references users;
+
+    alter table if exists advances 
+       add constraint FK9vkd6nmetite551mil4fjqu0b 
+       foreign key (employee_id) 
+       references employees;
+
+    alter table if exists advances 
+       add constraint FKj5tqg50fi4n38b65vw3xgq3gc 
+       foreign key (organization_id) 
+       references organizations;
+
+    alter table if exists attendance 
+       add constraint FKb48lmkou5j4rvde9sr88bqgjw 
+       foreign key (employee_id) 
+       references employees;
+
+    alter table if exists batch_jobs 
+       add constraint FKsga048n2e22wepmwp3dwlqhs1 
+       foreign key (organization_id) 
+       references organizations;
+
+    alter table if exists batch_jobs 
+       add constraint FK2of78mdrwpa8n4kys2osseopd 
+       foreign key (requested_by) 
+       references users;
+
+    alter table if exists departments 
+       add constraint FK69kdxq27lkb5p622ypc93tcr4 
+       foreign key (organization_id) 
+       references organizations;
+
+    alter table if exists employees 
+       add constraint FKgy4qe3dnqrm3ktd76sxp7n4c2 
+       foreign key (department_id) 
+       references departments;
+
+    alter table if exists employees 
+       add constraint FKh62l7gpgesex8wjd6himtb3e1 
+       foreign key (organization_id) 
+       references organizations;
+
+    alter table if exists payrolls 
+       add constraint FKiyfp8uysuhgfkod3xcdhjm7qf 
+       foreign key (employee_id) 
+       references employees;
+
+    alter table if exists user_roles 
+       add constraint FKhfh9dx7w3ubf1co1vdev94g3f 
+       foreign key (user_id) 
+       references users;
+
+    alter table if exists users 
+       add constraint FK6p2ib82uai0pj9yk1iassppgq 
+       foreign key (employee_id) 
+       references employees;
+
+    alter table if exists users 
+       add constraint FKqpugllwvyv37klq7ft9m8aqxk 
+       foreign key (organization_id) 
+       references organizations;